@@ -0,0 +1,63 @@
+package com.example.coupon.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 경합 카운터 비교 (재고/발급 수량 카운터 후보)
+ * - atomicLong       : 단일 CAS 카운터 (StockLeaseManager 임대분)
+ * - longAdder        : 셀 분산 합계 (IssueLockStats), 합계는 근사
+ * - stripedDecrement : 스트라이프별 재고를 나눠 갖고 CAS 차감 (CouponPolicySlot 과 같은 구조)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class ContendedCounterBenchmark {
+
+    // false sharing 방지용 간격 (long 8개 = 64 byte)
+    private static final int PAD = 8;
+
+    @Param({"8"})
+    public int stripes;
+
+    private final AtomicLong atomicLong = new AtomicLong();
+    private final LongAdder longAdder = new LongAdder();
+    private AtomicLongArray striped;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        striped = new AtomicLongArray(stripes * PAD);
+        for (int i = 0; i < stripes; i++) {
+            striped.set(i * PAD, Long.MAX_VALUE);
+        }
+    }
+
+    @Benchmark
+    public long atomicLong() {
+        return atomicLong.incrementAndGet();
+    }
+
+    @Benchmark
+    public void longAdder() {
+        longAdder.increment();
+    }
+
+    @Benchmark
+    public boolean stripedDecrement() {
+        int home = ThreadLocalRandom.current().nextInt(stripes) * PAD;
+        long current;
+        do {
+            current = striped.get(home);
+            if (current <= 0) {
+                return false;
+            }
+        } while (!striped.compareAndSet(home, current, current - 1));
+        return true;
+    }
+}
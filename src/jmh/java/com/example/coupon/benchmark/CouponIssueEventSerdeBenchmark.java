@@ -0,0 +1,56 @@
+package com.example.coupon.benchmark;
+
+import com.example.coupon.dto.CouponIssueEvent;
+import com.example.coupon.dto.CouponIssueEventDeserializer;
+import com.example.coupon.dto.CouponIssueEventSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CouponIssueEvent 직렬화/역직렬화
+ * - json*   : Kafka JsonSerializer 와 같은 Jackson 경로 (이전 방식)
+ * - binary* : CouponIssueEventSerializer / Deserializer (coupon-issue 토픽 현재 방식)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CouponIssueEventSerdeBenchmark {
+
+    private static final String TOPIC = "coupon-issue";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CouponIssueEventSerializer serializer = new CouponIssueEventSerializer();
+    private final CouponIssueEventDeserializer deserializer = new CouponIssueEventDeserializer();
+    private CouponIssueEvent event;
+    private byte[] jsonPayload;
+    private byte[] binaryPayload;
+
+    @Setup
+    public void setUp() throws Exception {
+        event = new CouponIssueEvent(42L, 7L, 123456L, "bench-user-0001", System.currentTimeMillis());
+        jsonPayload = objectMapper.writeValueAsBytes(event);
+        binaryPayload = serializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public CouponIssueEvent jsonDeserialize() throws Exception {
+        return objectMapper.readValue(jsonPayload, CouponIssueEvent.class);
+    }
+
+    @Benchmark
+    public byte[] binarySerialize() {
+        return serializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public CouponIssueEvent binaryDeserialize() {
+        return deserializer.deserialize(TOPIC, binaryPayload);
+    }
+}
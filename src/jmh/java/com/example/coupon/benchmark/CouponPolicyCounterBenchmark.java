@@ -0,0 +1,43 @@
+package com.example.coupon.benchmark;
+
+import com.example.coupon.entity.CouponPolicy;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CouponPolicy 발급 수량 연산 (락을 잡은 뒤 수행되는 엔티티 로직)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CouponPolicyCounterBenchmark {
+
+    private CouponPolicy policy;
+    private LocalDateTime now;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        now = LocalDateTime.now();
+        policy = new CouponPolicy(Integer.MAX_VALUE, now.minusDays(1), now.plusDays(1), true);
+    }
+
+    @Benchmark
+    public boolean isIssuableAndCanIssue() {
+        return policy.isIssuable(now) && policy.canIssue();
+    }
+
+    @Benchmark
+    public int incrementIssuedQuantity() {
+        policy.incrementIssuedQuantity();
+        return policy.getIssuedQuantity();
+    }
+
+    @Benchmark
+    public int incrementAndDecrement() {
+        policy.incrementIssuedQuantity();
+        policy.decrementIssuedQuantity();
+        return policy.getRemainingQuantity();
+    }
+}
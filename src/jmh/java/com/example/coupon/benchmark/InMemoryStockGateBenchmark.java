@@ -0,0 +1,110 @@
+package com.example.coupon.benchmark;
+
+import com.example.coupon.entity.StockGateType;
+import com.example.coupon.inmemory.InMemoryRedisTemplate;
+import com.example.coupon.inmemory.InMemoryStockStore;
+import com.example.coupon.service.CouponMetadata;
+import com.example.coupon.service.CouponMetadataCache;
+import com.example.coupon.service.InMemoryStockGate;
+import com.example.coupon.service.IssuedUserFilter;
+import com.example.coupon.service.RedisDecrStockGate;
+import com.example.coupon.service.RedisScriptStockGate;
+import com.example.coupon.service.SplitStockGate;
+import com.example.coupon.service.StockGate;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 운영 StockGate 구현을 인메모리 저장소(InMemoryRedisTemplate / InMemoryStockStore) 위에서 실행
+ * - Redis 왕복 없이 게이트 자체 비용(키 계산, 중복 체크, 스크립트와 같은 의미의 차감, 결과 해석)을 스레드 경합 하에서 측정
+ * - 재고가 바닥나면 iteration 마다 저장소를 새로 만들어 다시 채움 (매진 경로도 함께 측정됨)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class InMemoryStockGateBenchmark {
+
+    private static final int STOCK = 1_000_000;
+
+    @Param({"IN_MEMORY", "REDIS_SCRIPT", "REDIS_DECR", "REDIS_SPLIT"})
+    public StockGateType gateType;
+
+    @Param({"1", "16"})
+    public int coupons;
+
+    @Param({"true", "false"})
+    public boolean dedupe;
+
+    private final AtomicLong userSeq = new AtomicLong();
+    private StockGate gate;
+
+    @Setup(Level.Iteration)
+    public void refill() {
+        // 스크립트는 인스턴스로 연결되므로 템플릿과 게이트에 같은 객체를 넘긴다
+        RedisScript<Long> issueGateScript = script("coupon-issue-gate.lua");
+        RedisScript<Long> stockDecrScript = script("coupon-stock-decr.lua");
+        RedisScript<Long> splitGateScript = script("coupon-split-gate.lua");
+        RedisScript<Long> stockReleaseScript = script("coupon-stock-release.lua");
+        InMemoryRedisTemplate redisTemplate = new InMemoryRedisTemplate(new InMemoryStockStore(), Map.of(
+                "couponIssueGateScript", issueGateScript,
+                "couponStockDecrScript", stockDecrScript,
+                "couponSplitGateScript", splitGateScript,
+                "couponStockReleaseScript", stockReleaseScript));
+        CouponMetadataCache metadataCache = new FixedMetadataCache();
+        IssuedUserFilter issuedUserFilter = new IssuedUserFilter(redisTemplate);
+        setField(issuedUserFilter, "enabled", dedupe);
+        setField(issuedUserFilter, "localCapacity", 100_000);
+
+        gate = switch (gateType) {
+            case IN_MEMORY -> new InMemoryStockGate(metadataCache, issuedUserFilter);
+            case REDIS_SCRIPT -> new RedisScriptStockGate(redisTemplate, issueGateScript, stockReleaseScript, metadataCache, issuedUserFilter);
+            case REDIS_DECR -> new RedisDecrStockGate(redisTemplate, stockDecrScript, stockReleaseScript, metadataCache, issuedUserFilter);
+            case REDIS_SPLIT -> new SplitStockGate(redisTemplate, splitGateScript, stockReleaseScript, metadataCache, issuedUserFilter, 8, 1000);
+            default -> throw new IllegalArgumentException("Unsupported gate: " + gateType);
+        };
+    }
+
+    @Benchmark
+    public StockGate.Result issue() {
+        long seq = userSeq.incrementAndGet();
+        long couponId = seq % coupons + 1;
+        return gate.tryAcquire(couponId, "user-" + seq);
+    }
+
+    private static RedisScript<Long> script(String name) {
+        return RedisScript.of(new ClassPathResource("scripts/" + name), Long.class);
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    // DB 없이 고정 메타데이터 반환
+    private static class FixedMetadataCache extends CouponMetadataCache {
+
+        private final LocalDateTime now = LocalDateTime.now();
+        private final Map<Long, CouponMetadata> entries = new ConcurrentHashMap<>();
+
+        FixedMetadataCache() {
+            super(null, null, null, 0, 0, 0);
+        }
+
+        @Override
+        public CouponMetadata get(Long couponId) {
+            return entries.computeIfAbsent(couponId, id -> new CouponMetadata(id, id, STOCK,
+                    now.minusDays(1), now.plusDays(1), true, false, null));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.coupon.benchmark;
+
+import com.example.coupon.jwt.JwtTokenProvider;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.Authentication;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtTokenProvider 토큰 검증 경로
+ * - authenticateCached  : 필터 경로 (캐시 hit)
+ * - authenticateUncached: 필터 경로 (캐시 미사용 → 서명 검증 + 파싱)
+ * - validateToken / getAuthentication: 기존 2회 파싱 경로
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-for-jwt-token-provider-0123456789";
+
+    private JwtTokenProvider cachedProvider;
+    private JwtTokenProvider uncachedProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedProvider = new JwtTokenProvider(SECRET, 60_000, 100_000, null);
+        // ttl 0 → 캐시에 넣지 않음
+        uncachedProvider = new JwtTokenProvider(SECRET, 0, 100_000, null);
+
+        // JwtTokenProvider 와 같은 방식으로 키 생성
+        token = Jwts.builder()
+                .setSubject("bench-user")
+                .claim("auth", "ROLE_USER")
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(Base64.getEncoder().encode(SECRET.getBytes())), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public Authentication authenticateCached() {
+        return cachedProvider.authenticate(token);
+    }
+
+    @Benchmark
+    public Authentication authenticateUncached() {
+        return uncachedProvider.authenticate(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return uncachedProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return uncachedProvider.getAuthentication(token);
+    }
+}
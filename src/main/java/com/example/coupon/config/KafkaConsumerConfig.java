@@ -0,0 +1,52 @@
+package com.example.coupon.config;
+
+import com.example.coupon.dto.CouponIssueEvent;
+import com.example.coupon.dto.CouponIssueStatus;
+import com.example.coupon.exception.CouponNotFoundException;
+import com.example.coupon.service.GateStockReleaser;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+/**
+ * Listener 컨테이너 기본 오류 처리 (재시도 토픽을 쓰지 않는 배치 Consumer 용)
+ * - 배치 Listener 는 non-blocking 재시도 토픽을 지원하지 않으므로 짧은 blocking 재시도 후 {topic}-dlt 로 보냄
+ * - 없는 쿠폰은 재시도 없이 바로 DLT
+ * - DLT 발행에 성공하면 여기서 바로 게이트 재고 반납 (배치 모드에서는 DLT 를 소비하는 단건 Consumer 가 떠 있지 않음)
+ * 단건 Consumer(@RetryableTopic)는 재시도 토픽 설정이 자체 오류 처리기로 덮어쓴다.
+ */
+@Slf4j
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Bean
+    public CommonErrorHandler kafkaErrorHandler(KafkaTemplate<String, Object> couponIssueRetryKafkaTemplate,
+                                                GateStockReleaser gateStockReleaser,
+                                                @Value("${coupon.consumer.batch-retry.interval-ms:500}") long intervalMs,
+                                                @Value("${coupon.consumer.batch-retry.max-attempts:2}") long maxAttempts) {
+        DeadLetterPublishingRecoverer deadLetter = new DeadLetterPublishingRecoverer(couponIssueRetryKafkaTemplate,
+                (record, ex) -> {
+                    log.error("Coupon issue record dead-lettered. topic: {}, partition: {}, offset: {}, reason: {}",
+                            record.topic(), record.partition(), record.offset(), ex.toString());
+                    return new TopicPartition(record.topic() + "-dlt", -1);
+                });
+        // 결과 키가 PENDING 일 때만 반납하므로 이미 발급/거절로 끝난 레코드나 DLT 재처리와 겹쳐도 한 번만 반납
+        ConsumerRecordRecoverer recoverer = (record, ex) -> {
+            deadLetter.accept(record, ex);
+            if (record.value() instanceof CouponIssueEvent event) {
+                gateStockReleaser.releaseAfterCommit(event, CouponIssueStatus.FAILED);
+            }
+        };
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, new FixedBackOff(intervalMs, maxAttempts));
+        errorHandler.addNotRetryableExceptions(CouponNotFoundException.class);
+        return errorHandler;
+    }
+}
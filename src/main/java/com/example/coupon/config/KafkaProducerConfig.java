@@ -0,0 +1,53 @@
+package com.example.coupon.config;
+
+import com.example.coupon.dto.CouponIssueEvent;
+import com.example.coupon.dto.CouponIssueEventSerializer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+
+import java.util.Map;
+
+/**
+ * coupon-issue Producer 튜닝 기본값 (idempotent, lz4 배치, max.block.ms 상한)
+ * @PropertySource 는 application.yml 보다 우선순위가 낮으므로 환경별로 덮어쓸 수 있음
+ */
+@Configuration
+@PropertySource("classpath:kafka-producer.properties")
+public class KafkaProducerConfig {
+
+    /**
+     * coupon-issue 전용 KafkaTemplate
+     * Boot 자동 설정 ProducerFactory 설정은 그대로 쓰고, 직렬화만 바이너리(CouponIssueEventSerializer)로 고정
+     * (application.yml 의 value-serializer 가 JsonSerializer 여도 이 토픽에는 적용되지 않음)
+     */
+    @Bean
+    @Profile("!inmemory")
+    @SuppressWarnings("unchecked")
+    public KafkaTemplate<String, CouponIssueEvent> couponIssueKafkaTemplate(ProducerFactory<?, ?> producerFactory) {
+        return new KafkaTemplate<>((ProducerFactory<String, CouponIssueEvent>) producerFactory, Map.of(
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, CouponIssueEventSerializer.class));
+    }
+
+    /**
+     * 재시도 토픽 / DLT 발행용 KafkaTemplate
+     * 역직렬화에 실패한 레코드는 원본 byte[] 그대로 DLT 로 보내야 하므로 값 타입별로 직렬화기를 고른다.
+     */
+    @Bean
+    public KafkaTemplate<String, Object> couponIssueRetryKafkaTemplate(ProducerFactory<?, ?> producerFactory) {
+        DelegatingByTypeSerializer valueSerializer = new DelegatingByTypeSerializer(Map.of(
+                byte[].class, new ByteArraySerializer(),
+                CouponIssueEvent.class, new CouponIssueEventSerializer()));
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(producerFactory.getConfigurationProperties(),
+                new StringSerializer(), valueSerializer));
+    }
+}
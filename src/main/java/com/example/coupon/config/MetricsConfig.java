@@ -0,0 +1,13 @@
+package com.example.coupon.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * 메트릭 기본 설정 (Prometheus scrape 엔드포인트, 발급 타이머 히스토그램)
+ * @PropertySource 는 application.yml 보다 우선순위가 낮으므로 환경별로 덮어쓸 수 있음
+ */
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+}
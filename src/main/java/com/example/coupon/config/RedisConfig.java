@@ -1,38 +1,198 @@
 package com.example.coupon.config;
 
+import com.example.coupon.service.CouponMetadataCache;
+import com.example.coupon.service.IssueResultStore;
+import com.example.coupon.service.IssueResultSubscriptions;
+import com.example.coupon.service.IssuedUserFilter;
+import com.example.coupon.service.SoldOutCache;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.time.Duration;
+import java.util.Arrays;
+
 @Configuration
 @EnableRedisRepositories
 public class RedisConfig {
 
-    @Value("${spring.data.redis.host}")
+    @Value("${spring.data.redis.host:localhost}")
     private String host;
 
-    @Value("${spring.data.redis.port}")
+    @Value("${spring.data.redis.port:6379}")
     private int port;
 
+    @Value("${spring.data.redis.database:0}")
+    private int database;
+
+    // 비어 있으면 인증 없음 (username 없이 password 만 있으면 default 사용자로 AUTH)
+    @Value("${spring.data.redis.username:}")
+    private String username;
+
+    @Value("${spring.data.redis.password:}")
+    private String password;
+
+    @Value("${spring.data.redis.ssl.enabled:false}")
+    private boolean ssl;
+
+    // host:port,host:port... (비어 있으면 standalone)
+    @Value("${spring.data.redis.cluster.nodes:}")
+    private String clusterNodes;
+
+    @Value("${spring.data.redis.cluster.max-redirects:3}")
+    private int maxRedirects;
+
+    @Value("${spring.data.redis.lettuce.cluster.refresh.period:30s}")
+    private Duration topologyRefreshPeriod;
+
+    // 명령 응답 대기 상한 (Lettuce 기본 60초 → 장애 시 요청 스레드가 오래 묶이지 않도록)
+    // 커넥션 팩토리를 직접 만들므로 Boot 표준 키(Duration)를 여기서 읽는다
+    @Value("${spring.data.redis.timeout:2s}")
+    private Duration commandTimeout;
+
+    @Value("${spring.data.redis.connect-timeout:1s}")
+    private Duration connectTimeout;
+
+    @Value("${spring.data.redis.lettuce.shutdown-timeout:100ms}")
+    private Duration shutdownTimeout;
+
+    // 이하 Boot 에 없는 설정 (coupon.redis.*)
+    // 0 이면 Lettuce 기본값 (코어 수)
+    @Value("${coupon.redis.lettuce.io-threads:0}")
+    private int ioThreads;
+
+    @Value("${coupon.redis.lettuce.computation-threads:0}")
+    private int computationThreads;
+
+    // executePipelined 에서 몇 개 명령마다 소켓에 flush 할지
+    @Value("${coupon.redis.lettuce.pipeline-flush-size:64}")
+    private int pipelineFlushSize;
+
+    /**
+     * Lettuce 이벤트 루프/계산 스레드 (커넥션 팩토리와 RedisTrackingCache 전용 연결이 공유)
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ClientResources lettuceClientResources() {
+        DefaultClientResources.Builder builder = DefaultClientResources.builder();
+        if (ioThreads > 0) {
+            builder.ioThreadPoolSize(ioThreads);
+        }
+        if (computationThreads > 0) {
+            builder.computationThreadPoolSize(computationThreads);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 모든 스레드가 하나의 네이티브 연결을 공유 (shareNativeConnection)
+     * - 게이트/카운터 스크립트처럼 여러 스레드가 동시에 보내는 명령은 한 연결에 응답을 기다리지 않고 이어서 쓰인다 (자동 파이프라이닝)
+     * - executePipelined 는 pipeline-flush-size 개마다 한 번만 flush 해서 명령당 write 시스템 콜을 줄인다
+     * RedisTrackingCache 는 이 팩토리의 접속 설정(database/계정/SSL/타임아웃)을 그대로 가져다 전용 연결을 만든다
+     */
     @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
+    public RedisConnectionFactory redisConnectionFactory(ClientResources lettuceClientResources) {
+        LettuceConnectionFactory connectionFactory = clusterNodes.isBlank()
+                ? standaloneConnectionFactory(lettuceClientResources)
+                : clusterConnectionFactory(lettuceClientResources);
+        connectionFactory.setShareNativeConnection(true);
+        connectionFactory.setPipeliningFlushPolicy(LettuceConnection.PipeliningFlushPolicy.buffered(pipelineFlushSize));
+        return connectionFactory;
+    }
+
+    private LettuceConnectionFactory standaloneConnectionFactory(ClientResources clientResources) {
         RedisStandaloneConfiguration redisStandaloneConfiguration = new RedisStandaloneConfiguration();
         redisStandaloneConfiguration.setHostName(host);
         redisStandaloneConfiguration.setPort(port);
+        redisStandaloneConfiguration.setDatabase(database);
+        if (!username.isBlank()) {
+            redisStandaloneConfiguration.setUsername(username);
+        }
+        if (!password.isBlank()) {
+            redisStandaloneConfiguration.setPassword(password);
+        }
 
-        return new LettuceConnectionFactory(redisStandaloneConfiguration);
+        return new LettuceConnectionFactory(redisStandaloneConfiguration,
+                clientConfiguration(clientResources, clientOptions()));
+    }
+
+    /**
+     * 클러스터 모드 (쿠폰 키는 hash tag 로 슬롯이 정해지고, REDIS_SPLIT 샤드는 슬롯이 서로 다름)
+     * 페일오버/리샤딩 후 MOVED·재연결 시 즉시, 그 외에는 주기적으로 토폴로지 갱신
+     */
+    private LettuceConnectionFactory clusterConnectionFactory(ClientResources clientResources) {
+        RedisClusterConfiguration clusterConfiguration = new RedisClusterConfiguration(
+                Arrays.stream(clusterNodes.split(",")).map(String::trim).filter(node -> !node.isEmpty()).toList());
+        clusterConfiguration.setMaxRedirects(maxRedirects);
+        if (!username.isBlank()) {
+            clusterConfiguration.setUsername(username);
+        }
+        if (!password.isBlank()) {
+            clusterConfiguration.setPassword(password);
+        }
+
+        ClusterTopologyRefreshOptions topologyRefresh = ClusterTopologyRefreshOptions.builder()
+                .enableAllAdaptiveRefreshTriggers()
+                .enablePeriodicRefresh(topologyRefreshPeriod)
+                .build();
+        ClusterClientOptions clusterClientOptions = ClusterClientOptions.builder(clientOptions())
+                .topologyRefreshOptions(topologyRefresh)
+                .build();
+        return new LettuceConnectionFactory(clusterConfiguration,
+                clientConfiguration(clientResources, clusterClientOptions));
+    }
+
+    // 연결이 끊긴 동안의 명령은 큐에 쌓지 않고 바로 실패 (재연결은 백그라운드에서 계속)
+    private ClientOptions clientOptions() {
+        return ClientOptions.builder()
+                .autoReconnect(true)
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .socketOptions(SocketOptions.builder()
+                        .connectTimeout(connectTimeout)
+                        .keepAlive(true)
+                        .tcpNoDelay(true)
+                        .build())
+                .timeoutOptions(TimeoutOptions.enabled(commandTimeout))
+                .build();
+    }
+
+    private LettuceClientConfiguration clientConfiguration(ClientResources clientResources, ClientOptions clientOptions) {
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder builder = LettuceClientConfiguration.builder();
+        if (ssl) {
+            builder.useSsl();
+        }
+        return builder
+                .clientResources(clientResources)
+                .clientOptions(clientOptions)
+                .commandTimeout(commandTimeout)
+                .shutdownTimeout(shutdownTimeout)
+                .build();
     }
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(){
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory redisConnectionFactory){
         RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
-        redisTemplate.setConnectionFactory(redisConnectionFactory());
+        redisTemplate.setConnectionFactory(redisConnectionFactory);
 
         redisTemplate.setKeySerializer(new StringRedisSerializer());
         redisTemplate.setValueSerializer(new StringRedisSerializer());
@@ -42,4 +202,69 @@ public class RedisConfig {
 
         return redisTemplate;
     }
+
+    // 쿠폰 발급 게이트 스크립트 (stock 초기화 + 중복 체크 + 차감을 한 번에 수행)
+    @Bean
+    public RedisScript<Long> couponIssueGateScript() {
+        return RedisScript.of(new ClassPathResource("scripts/coupon-issue-gate.lua"), Long.class);
+    }
+
+    // 노드 로컬 재고 임대 스크립트 (stock 에서 블록 단위로 차감)
+    @Bean
+    public RedisScript<Long> couponStockLeaseScript() {
+        return RedisScript.of(new ClassPathResource("scripts/coupon-stock-lease.lua"), Long.class);
+    }
+
+    // 분할 재고 샤드 게이트 스크립트 (REDIS_SPLIT)
+    @Bean
+    public RedisScript<Long> couponSplitGateScript() {
+        return RedisScript.of(new ClassPathResource("scripts/coupon-split-gate.lua"), Long.class);
+    }
+
+    // DECR 게이트 스크립트 (stock 초기화 + 차감, REDIS_DECR)
+    @Bean
+    public RedisScript<Long> couponStockDecrScript() {
+        return RedisScript.of(new ClassPathResource("scripts/coupon-stock-decr.lua"), Long.class);
+    }
+
+    // 게이트/임대 재고 반납 스크립트 (만료/정리된 키는 되살리지 않음)
+    @Bean
+    public RedisScript<Long> couponStockReleaseScript() {
+        return RedisScript.of(new ClassPathResource("scripts/coupon-stock-release.lua"), Long.class);
+    }
+
+    // 발급/취소 후 count, issued_total 갱신 스크립트
+    @Bean
+    public RedisScript<Long> couponIssuedCountScript() {
+        return RedisScript.of(new ClassPathResource("scripts/coupon-issued-count.lua"), Long.class);
+    }
+
+    // 발급 시작 전 stock/limit/count 사전 세팅 스크립트 (CouponWarmupScheduler)
+    @Bean
+    public RedisScript<Long> couponStockSeedScript() {
+        return RedisScript.of(new ClassPathResource("scripts/coupon-stock-seed.lua"), Long.class);
+    }
+
+    // RefreshToken Rotation 스크립트 (저장값 비교 + 새 토큰 저장)
+    @Bean
+    public RedisScript<Long> refreshTokenRotateScript() {
+        return RedisScript.of(new ClassPathResource("scripts/refresh-token-rotate.lua"), Long.class);
+    }
+
+    // SOLD OUT 플래그 / 중복 필터 해제 / 메타데이터 무효화 / 발급 결과 노드 간 전파 (inmemory 프로필은 단일 JVM 이라 불필요)
+    @Bean
+    @Profile("!inmemory")
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                       SoldOutCache soldOutCache,
+                                                                       IssuedUserFilter issuedUserFilter,
+                                                                       CouponMetadataCache couponMetadataCache,
+                                                                       IssueResultSubscriptions issueResultSubscriptions) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(soldOutCache, new ChannelTopic(SoldOutCache.CHANNEL));
+        container.addMessageListener(issuedUserFilter, new ChannelTopic(IssuedUserFilter.CHANNEL));
+        container.addMessageListener(couponMetadataCache, new ChannelTopic(CouponMetadataCache.CHANNEL));
+        container.addMessageListener(issueResultSubscriptions, new ChannelTopic(IssueResultStore.CHANNEL));
+        return container;
+    }
 }
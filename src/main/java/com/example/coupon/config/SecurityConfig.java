@@ -3,6 +3,7 @@ package com.example.coupon.config;
 import com.example.coupon.jwt.JwtAuthenticationFilter;
 import com.example.coupon.jwt.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -17,6 +18,9 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.Arrays;
 
 
 @Configuration
@@ -27,6 +31,10 @@ public class SecurityConfig {
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationConfiguration authenticationConfiguration;
 
+    // Actuator 전용 포트 (외부 미노출), 서비스 포트로 들어온 /actuator 요청은 인증 필요
+    @Value("${management.server.port:8081}")
+    private int managementPort;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
 
@@ -51,6 +59,7 @@ public class SecurityConfig {
                                 "/api/signup",
                                 "/members/refresh"
                         ).permitAll()
+                        .requestMatchers(actuatorOnManagementPort("/actuator/health", "/actuator/prometheus")).permitAll()
                         .requestMatchers(HttpMethod.DELETE, "/user").hasRole("ADMIN")
                         .requestMatchers("/members/role").hasRole("USER")
                         .anyRequest().authenticated()
@@ -65,6 +74,12 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // management 포트로 들어온 요청만 (Prometheus scrape / 헬스 체크)
+    private RequestMatcher actuatorOnManagementPort(String... paths) {
+        return request -> request.getLocalPort() == managementPort
+                && Arrays.asList(paths).contains(request.getRequestURI());
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -1,12 +1,21 @@
 package com.example.coupon.controller;
 
+import com.example.coupon.dto.CouponIssueStatus;
+import com.example.coupon.jwt.MemberPrincipal;
 import com.example.coupon.service.CouponIssueService;
 import com.example.coupon.service.CouponService;
+import com.example.coupon.service.IssueResultStore;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
@@ -15,18 +24,51 @@ public class CouponController {
 
     private final CouponService couponService;
     private final CouponIssueService couponIssueService;
+    private final IssueResultStore issueResultStore;
 
     /**
      * 쿠폰 발급 요청
      * Redis 선차단 후 Kafka로 비동기 처리
+     * Consumer backlog 가 허용치를 넘으면 429 + Retry-After
+     * 202 + Location(결과 조회 URL) → 클라이언트는 재요청 대신 결과를 기다림
      */
     @PostMapping("/{couponId}/issue")
     public ResponseEntity<?> issue(
             @PathVariable Long couponId,
             @AuthenticationPrincipal UserDetails userDetails
     ) {
-        couponService.issueCoupon(userDetails.getUsername(), couponId);
-        return ResponseEntity.accepted().build();
+        couponService.issueCoupon(MemberPrincipal.idOf(userDetails), userDetails.getUsername(), couponId);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/coupons/" + couponId + "/issue/result"))
+                .build();
+    }
+
+    /**
+     * 발급 결과 조회 (Redis GET 한 번)
+     * 아직 처리 전이면 PENDING + Retry-After(폴링 간격)
+     */
+    @GetMapping("/{couponId}/issue/result")
+    public ResponseEntity<?> result(
+            @PathVariable Long couponId,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        CouponIssueStatus status = issueResultStore.get(couponId, userDetails.getUsername());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!status.isFinal()) {
+            response.header(HttpHeaders.RETRY_AFTER, "1");
+        }
+        return response.body(Map.of("couponId", couponId, "status", status));
+    }
+
+    /**
+     * 발급 결과 SSE (결과 이벤트 하나를 보내고 종료, 타임아웃 시 결과 조회로 확인)
+     */
+    @GetMapping(value = "/{couponId}/issue/result/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter resultStream(
+            @PathVariable Long couponId,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        return issueResultStore.subscribe(couponId, userDetails.getUsername());
     }
 
     /**
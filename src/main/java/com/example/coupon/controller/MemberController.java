@@ -0,0 +1,24 @@
+package com.example.coupon.controller;
+
+import com.example.coupon.dto.JwtToken;
+import com.example.coupon.dto.RefreshTokenRequest;
+import com.example.coupon.jwt.JwtTokenProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/members")
+public class MemberController {
+
+    private final JwtTokenProvider jwtTokenProvider;
+
+    // 토큰 재발급 (RefreshToken Rotation, 비밀번호 검증 없음)
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshTokenRequest req) {
+        JwtToken token = jwtTokenProvider.refresh(req.getRefreshToken());
+        return ResponseEntity.ok(token);
+    }
+}
@@ -4,6 +4,7 @@ import com.example.coupon.dto.JwtToken;
 import com.example.coupon.dto.LoginRequest;
 import com.example.coupon.dto.SignupRequest;
 import com.example.coupon.jwt.JwtTokenProvider;
+import com.example.coupon.service.LoginConcurrencyLimiter;
 import com.example.coupon.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -22,6 +23,7 @@ public class UserController {
     private final UserService userService;
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
+    private final LoginConcurrencyLimiter loginConcurrencyLimiter;
 
     // 회원가입
     @PostMapping("/signup")
@@ -36,15 +38,21 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
-    // 로그인
+    // 로그인 (BCrypt 비교는 동시 실행 수 제한, 토큰 만료 시에는 /members/refresh 사용)
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest req) {
-        Authentication authentication =
-                authenticationManager.authenticate(//여기서 UserDetailsService 호출
-                        new UsernamePasswordAuthenticationToken(
-                                req.getUsername(), req.getPassword()
-                        )
-                );
+        Authentication authentication;
+        loginConcurrencyLimiter.acquire();
+        try {
+            authentication =
+                    authenticationManager.authenticate(//여기서 UserDetailsService 호출
+                            new UsernamePasswordAuthenticationToken(
+                                    req.getUsername(), req.getPassword()
+                            )
+                    );
+        } finally {
+            loginConcurrencyLimiter.release();
+        }
 
         JwtToken token = jwtTokenProvider.generateToken(authentication);
         return ResponseEntity.ok(token);
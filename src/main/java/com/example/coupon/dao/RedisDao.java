@@ -1,19 +1,23 @@
 package com.example.coupon.dao;
 
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.List;
 
 @Component
 public class RedisDao {
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final ValueOperations<String, Object> values;
+    private final StringRedisTemplate redisTemplate;
+    private final ValueOperations<String, String> values;
+    private final RedisScript<Long> refreshTokenRotateScript;
 
-    public RedisDao(RedisTemplate<String, Object> redisTemplate) {
+    public RedisDao(StringRedisTemplate redisTemplate, RedisScript<Long> refreshTokenRotateScript) {
         this.redisTemplate = redisTemplate;
         this.values = redisTemplate.opsForValue();
+        this.refreshTokenRotateScript = refreshTokenRotateScript;
     }
 
     public void setValues(String key, String data){
@@ -28,6 +32,13 @@ public class RedisDao {
         return values.get(key);
     }
 
+    // 저장값이 expected 와 같을 때만 data 로 교체 (스크립트 한 번)
+    public boolean compareAndSet(String key, String expected, String data, Duration duration){
+        Long result = redisTemplate.execute(refreshTokenRotateScript, List.of(key),
+                expected, data, String.valueOf(duration.toMillis()));
+        return result != null && result == 1L;
+    }
+
     public void deleteValues(String key){
         redisTemplate.delete(key);
     }
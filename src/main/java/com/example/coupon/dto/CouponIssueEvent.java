@@ -1,12 +1,23 @@
 package com.example.coupon.dto;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
+/**
+ * coupon-issue 토픽 이벤트 (CouponIssueEventSerializer 고정 길이 바이너리)
+ * - userId / policyId 는 API 에서 확인한 PK → Consumer 는 유저/쿠폰 조회 없이 참조만 사용
+ * - username(로그인 userId)은 게이트 반납, 분산 슬롯 해시, 로그용
+ * - requestedAt: 게이트 통과 시각 (epoch millis)
+ */
 @Getter
 @AllArgsConstructor
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class CouponIssueEvent {
     private Long couponId;
+    private Long policyId;
+    private Long userId;
     private String username;
+    private long requestedAt;
 }
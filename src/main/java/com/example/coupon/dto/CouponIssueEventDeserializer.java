@@ -0,0 +1,76 @@
+package com.example.coupon.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 고정 길이 바이너리 → CouponIssueEvent (CouponIssueEventSerializer 참고)
+ * 알 수 없는 버전/길이는 SerializationException → ErrorHandlingDeserializer 가 poison pill 로 처리
+ * 이전 버전 JSON({couponId, username}) 도 읽는다: 롤링 배포 중 이전 노드가 발행한 이벤트와 재시도 토픽에 남은 이벤트
+ * (JSON 은 '{' 로 시작하므로 버전 바이트 0x01 과 겹치지 않음, 모든 노드가 바이너리로 바뀐 다음 릴리스에서 제거)
+ */
+public class CouponIssueEventDeserializer implements Deserializer<CouponIssueEvent> {
+
+    private static final byte JSON_OBJECT_START = '{';
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public CouponIssueEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length > 0 && data[0] == JSON_OBJECT_START) {
+            return fromLegacyJson(data);
+        }
+        if (data.length < CouponIssueEventSerializer.HEADER_SIZE) {
+            throw new SerializationException("CouponIssueEvent payload too short: " + data.length + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        byte version = buffer.get();
+        if (version != CouponIssueEventSerializer.VERSION) {
+            throw new SerializationException("Unsupported CouponIssueEvent version: " + version);
+        }
+        Long couponId = orNull(buffer.getLong());
+        Long policyId = orNull(buffer.getLong());
+        Long userId = orNull(buffer.getLong());
+        long requestedAt = buffer.getLong();
+        int usernameLength = buffer.getShort();
+        if (usernameLength < 0 || usernameLength != buffer.remaining()) {
+            throw new SerializationException("Invalid CouponIssueEvent username length: " + usernameLength);
+        }
+        String username = new String(data, buffer.position(), usernameLength, StandardCharsets.UTF_8);
+        return new CouponIssueEvent(couponId, policyId, userId, username, requestedAt);
+    }
+
+    // 이전 JsonSerializer 형식 (policyId / userId 가 없으면 Consumer 가 조회로 보완)
+    private CouponIssueEvent fromLegacyJson(byte[] data) {
+        try {
+            JsonNode node = objectMapper.readTree(data);
+            JsonNode couponId = node.get("couponId");
+            JsonNode username = node.get("username");
+            if (couponId == null || !couponId.canConvertToLong() || username == null || !username.isTextual()) {
+                throw new SerializationException("Invalid legacy CouponIssueEvent JSON");
+            }
+            return new CouponIssueEvent(couponId.asLong(), longOrNull(node, "policyId"), longOrNull(node, "userId"),
+                    username.asText(), node.path("requestedAt").asLong(0));
+        } catch (IOException e) {
+            throw new SerializationException("Invalid legacy CouponIssueEvent JSON", e);
+        }
+    }
+
+    private static Long longOrNull(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || !value.canConvertToLong() ? null : value.asLong();
+    }
+
+    private static Long orNull(long id) {
+        return id == 0 ? null : id;
+    }
+}
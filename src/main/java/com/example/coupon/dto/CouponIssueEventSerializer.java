@@ -0,0 +1,44 @@
+package com.example.coupon.dto;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * CouponIssueEvent → 고정 길이 바이너리 (JSON 대체)
+ * [version:1][couponId:8][policyId:8][userId:8][requestedAt:8][usernameLength:2][username:UTF-8]
+ * id 가 null 이면 0 으로 기록 (IDENTITY 키는 0 을 쓰지 않음)
+ */
+public class CouponIssueEventSerializer implements Serializer<CouponIssueEvent> {
+
+    public static final byte VERSION = 1;
+    public static final int HEADER_SIZE = 1 + 8 * 4 + 2;
+
+    @Override
+    public byte[] serialize(String topic, CouponIssueEvent event) {
+        if (event == null) {
+            return null;
+        }
+        byte[] username = event.getUsername() == null
+                ? new byte[0]
+                : event.getUsername().getBytes(StandardCharsets.UTF_8);
+        if (username.length > Short.MAX_VALUE) {
+            throw new SerializationException("username too long: " + username.length + " bytes");
+        }
+        return ByteBuffer.allocate(HEADER_SIZE + username.length)
+                .put(VERSION)
+                .putLong(orZero(event.getCouponId()))
+                .putLong(orZero(event.getPolicyId()))
+                .putLong(orZero(event.getUserId()))
+                .putLong(event.getRequestedAt())
+                .putShort((short) username.length)
+                .put(username)
+                .array();
+    }
+
+    private static long orZero(Long id) {
+        return id == null ? 0 : id;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.coupon.dto;
+
+/**
+ * (쿠폰, 유저) 발급 요청 처리 결과 - 202 응답 이후 결과 조회/SSE 로 전달
+ * 선언 순서(ordinal)가 Redis 저장 코드이므로 항목은 뒤에만 추가
+ */
+public enum CouponIssueStatus {
+    // 아직 Consumer 가 처리하지 않음 (결과 없음)
+    PENDING,
+    ISSUED,
+    SOLD_OUT,
+    DUPLICATE,
+    NOT_ISSUABLE,
+    // 발행 실패 / DLT (재고는 반납됨 → 다시 요청 가능)
+    FAILED;
+
+    public boolean isFinal() {
+        return this != PENDING;
+    }
+}
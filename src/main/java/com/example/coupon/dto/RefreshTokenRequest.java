@@ -0,0 +1,8 @@
+package com.example.coupon.dto;
+
+import lombok.Getter;
+
+@Getter
+public class RefreshTokenRequest {
+    private String refreshToken;
+}
@@ -11,6 +11,12 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Coupon {
 
+    public Coupon(String name, int discountAmount, CouponPolicy policy) {
+        this.name = name;
+        this.discountAmount = discountAmount;
+        this.policy = policy;
+    }
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
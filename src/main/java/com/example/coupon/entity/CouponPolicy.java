@@ -5,13 +5,30 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 @Entity
 @Table(name = "coupon_policy")
+@EntityListeners(CouponPolicyChangeListener.class)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class CouponPolicy {
 
+    public CouponPolicy(int totalQuantity, LocalDateTime startAt, LocalDateTime endAt, boolean active) {
+        this(totalQuantity, startAt, endAt, active, 1);
+    }
+
+    public CouponPolicy(int totalQuantity, LocalDateTime startAt, LocalDateTime endAt, boolean active, int stripeCount) {
+        this.totalQuantity = totalQuantity;
+        this.startAt = startAt;
+        this.endAt = endAt;
+        this.active = active;
+        this.issuedQuantity = 0;
+        this.stripeCount = Math.max(stripeCount, 1);
+    }
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -32,16 +49,65 @@ public class CouponPolicy {
     @Column(nullable = false)
     private boolean active;
 
-    // 현재 발급 수량
+    // 현재 발급 수량 (분산 슬롯 사용 시에는 슬롯 도입 이전에 발급된 수량)
     @Column(nullable = false)
     private int issuedQuantity = 0;
 
+    // 발급 수량 분산 슬롯 수 (1 이면 issuedQuantity 단일 row 로 관리)
+    @Column(nullable = false, columnDefinition = "int default 1")
+    private int stripeCount = 1;
+
+    // 재고 선차단 방식 (null 이면 coupon.gate.default-type)
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private StockGateType stockGate;
+
+    @OneToMany(mappedBy = "policy", fetch = FetchType.LAZY)
+    private List<CouponPolicySlot> slots = new ArrayList<>();
+
+    // 로드/저장 시점의 메타데이터 필드 값 (CouponPolicyChangeListener 변경 감지용)
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private List<Object> savedMetadata;
+
+    public void changeStockGate(StockGateType stockGate) {
+        this.stockGate = stockGate;
+    }
+
+    // CouponMetadata 로 캐싱되는 필드가 로드 이후 바뀌었는지 (발급 수량 변경은 해당 없음)
+    public boolean isMetadataChanged() {
+        return savedMetadata != null && !savedMetadata.equals(metadataFields());
+    }
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void snapshotMetadata() {
+        savedMetadata = metadataFields();
+    }
+
+    private List<Object> metadataFields() {
+        return Arrays.asList(totalQuantity, startAt, endAt, active, stripeCount, stockGate);
+    }
+
     public boolean isIssuable(LocalDateTime now) {
         return active && !now.isBefore(startAt) && !now.isAfter(endAt);
     }
 
+    public boolean isStriped() {
+        return stripeCount > 1;
+    }
+
+    // 전체 발급 수량 (슬롯 합산)
+    public int getAggregateIssuedQuantity() {
+        if (!isStriped()) {
+            return issuedQuantity;
+        }
+        return issuedQuantity + slots.stream().mapToInt(CouponPolicySlot::getIssuedQuantity).sum();
+    }
+
     public boolean canIssue() {
-        return issuedQuantity < totalQuantity;
+        return getAggregateIssuedQuantity() < totalQuantity;
     }
 
     public void incrementIssuedQuantity() {
@@ -51,9 +117,45 @@ public class CouponPolicy {
         this.issuedQuantity++;
     }
 
+    // 남은 발급 가능 수량
+    public int getRemainingQuantity() {
+        return Math.max(totalQuantity - getAggregateIssuedQuantity(), 0);
+    }
+
+    // 배치 발급: 한 번의 락으로 여러 건 반영
+    public void incrementIssuedQuantity(int count) {
+        if (count > getRemainingQuantity()) {
+            throw new com.example.coupon.exception.CouponSoldOutException();
+        }
+        this.issuedQuantity += count;
+    }
+
     public void decrementIssuedQuantity() {
+        if (isStriped()) {
+            for (CouponPolicySlot slot : slots) {
+                if (slot.getIssuedQuantity() > 0) {
+                    slot.decrementIssuedQuantity();
+                    return;
+                }
+            }
+        }
         if (this.issuedQuantity > 0) {
             this.issuedQuantity--;
         }
     }
+
+    /**
+     * 분산 슬롯 생성: 남은 수량을 stripeCount 개로 균등 분배 (나머지는 앞 슬롯부터 1개씩)
+     */
+    public List<CouponPolicySlot> createSlots() {
+        int remaining = Math.max(totalQuantity - issuedQuantity, 0);
+        int base = remaining / stripeCount;
+        int extra = remaining % stripeCount;
+
+        List<CouponPolicySlot> created = new ArrayList<>(stripeCount);
+        for (int slotNo = 0; slotNo < stripeCount; slotNo++) {
+            created.add(new CouponPolicySlot(this, slotNo, base + (slotNo < extra ? 1 : 0)));
+        }
+        return created;
+    }
 }
@@ -0,0 +1,26 @@
+package com.example.coupon.entity;
+
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * CouponPolicy 엔티티 리스너: 메타데이터 필드(기간/활성화/수량/슬롯 수/게이트 종류)가 바뀌면 CouponPolicyChangedEvent 발행
+ * - 발급 수량만 바뀌는 UPDATE(비관적 락 발급)는 무시
+ * - 캐시 무효화는 이벤트를 받는 쪽에서 커밋 이후에 처리 (엔티티는 서비스 계층을 알지 않음)
+ * Hibernate 가 Spring 빈 컨테이너로 생성
+ */
+public class CouponPolicyChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CouponPolicyChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostUpdate
+    public void afterUpdate(CouponPolicy policy) {
+        if (policy.isMetadataChanged()) {
+            eventPublisher.publishEvent(new CouponPolicyChangedEvent(policy.getId()));
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.coupon.entity;
+
+/**
+ * 캐싱되는 정책 메타데이터가 바뀜 (CouponPolicyChangeListener 가 UPDATE 시점에 발행)
+ */
+public record CouponPolicyChangedEvent(Long policyId) {
+}
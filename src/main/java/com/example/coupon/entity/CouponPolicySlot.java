@@ -0,0 +1,60 @@
+package com.example.coupon.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * CouponPolicy 발급 수량 분산 슬롯
+ * - 대량 캠페인에서 coupon_policy 단일 row 경합을 피하기 위해 totalQuantity 를 N개 슬롯에 나눠 관리
+ * - 슬롯별 quota 안에서만 발급, 부족하면 다른 슬롯에서 quota 를 옮겨옴
+ */
+@Entity
+@Table(
+        name = "coupon_policy_slot",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"policy_id", "slot_no"})
+        }
+)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CouponPolicySlot {
+
+    public CouponPolicySlot(CouponPolicy policy, int slotNo, int quota) {
+        this.policy = policy;
+        this.slotNo = slotNo;
+        this.quota = quota;
+        this.issuedQuantity = 0;
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "policy_id", nullable = false)
+    private CouponPolicy policy;
+
+    // 슬롯 번호 (0 ~ stripeCount-1)
+    @Column(nullable = false)
+    private int slotNo;
+
+    // 이 슬롯에 할당된 발급 가능 수량
+    @Column(nullable = false)
+    private int quota;
+
+    // 이 슬롯에서 발급된 수량
+    @Column(nullable = false)
+    private int issuedQuantity = 0;
+
+    // 엔티티 단위 수정과 벌크 UPDATE 가 섞여도 덮어쓰지 않도록 낙관적 락
+    @Version
+    private long version;
+
+    public void decrementIssuedQuantity() {
+        if (this.issuedQuantity > 0) {
+            this.issuedQuantity--;
+        }
+    }
+}
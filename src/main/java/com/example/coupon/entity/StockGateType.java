@@ -0,0 +1,17 @@
+package com.example.coupon.entity;
+
+/**
+ * 쿠폰 정책별 재고 선차단 방식 (StockGate 구현 선택)
+ */
+public enum StockGateType {
+    // Redis DECR (+ 초과 시 INCR 보정)
+    REDIS_DECR,
+    // Redis Lua 게이트 스크립트 (초기화 + 중복 체크 + 차감을 원자적으로)
+    REDIS_SCRIPT,
+    // 노드 로컬 임대 재고 (Redis 는 블록 단위로만 호출)
+    LEASE,
+    // 재고를 N 개 샤드(서로 다른 클러스터 슬롯)로 나눠 차감 (대형 쿠폰의 핫 키 분산)
+    REDIS_SPLIT,
+    // JVM 메모리 (단일 노드 / 테스트용, 노드 간 공유 안 됨)
+    IN_MEMORY
+}
@@ -0,0 +1,7 @@
+package com.example.coupon.exception;
+
+public class CouponAlreadyIssuedException extends RuntimeException {
+    public CouponAlreadyIssuedException() {
+        super("Coupon already issued");
+    }
+}
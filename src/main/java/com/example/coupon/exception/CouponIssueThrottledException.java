@@ -0,0 +1,15 @@
+package com.example.coupon.exception;
+
+import lombok.Getter;
+
+@Getter
+public class CouponIssueThrottledException extends RuntimeException {
+
+    // 재시도까지 대기 시간(초)
+    private final long retryAfterSeconds;
+
+    public CouponIssueThrottledException(long retryAfterSeconds) {
+        super("Coupon issue requests are throttled");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.coupon.exception;
+
+public class CouponIssueUnavailableException extends RuntimeException {
+    public CouponIssueUnavailableException() {
+        super("Coupon issue is temporarily unavailable");
+    }
+}
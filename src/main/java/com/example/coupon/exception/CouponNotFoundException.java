@@ -0,0 +1,7 @@
+package com.example.coupon.exception;
+
+public class CouponNotFoundException extends RuntimeException {
+    public CouponNotFoundException() {
+        super("Coupon not found");
+    }
+}
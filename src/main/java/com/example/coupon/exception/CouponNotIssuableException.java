@@ -0,0 +1,21 @@
+package com.example.coupon.exception;
+
+import lombok.Getter;
+
+@Getter
+public class CouponNotIssuableException extends RuntimeException {
+
+    public enum Reason {
+        INACTIVE,
+        NOT_STARTED,
+        ENDED
+    }
+
+    // 발급 불가 사유 (정책 비활성 / 시작 전 / 종료 후)
+    private final Reason reason;
+
+    public CouponNotIssuableException(Reason reason) {
+        super("Coupon is not issuable now");
+        this.reason = reason;
+    }
+}
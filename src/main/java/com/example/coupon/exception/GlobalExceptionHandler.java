@@ -1,5 +1,6 @@
 package com.example.coupon.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -10,6 +11,25 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    @ExceptionHandler(CouponNotFoundException.class)
+    public ResponseEntity<?> handleNotFound(CouponNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of(
+                        "status", "NOT_FOUND",
+                        "message", e.getMessage()
+                ));
+    }
+
+    @ExceptionHandler(CouponNotIssuableException.class)
+    public ResponseEntity<?> handleNotIssuable(CouponNotIssuableException e) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of(
+                        "status", "NOT_ISSUABLE",
+                        "reason", e.getReason().name(),
+                        "message", e.getMessage()
+                ));
+    }
+
     @ExceptionHandler(CouponSoldOutException.class)
     public ResponseEntity<?> handleSoldOut(CouponSoldOutException e) {
         return ResponseEntity.status(HttpStatus.CONFLICT)
@@ -18,4 +38,51 @@ public class GlobalExceptionHandler {
                         "message", e.getMessage()
                 ));
     }
+
+    @ExceptionHandler(CouponAlreadyIssuedException.class)
+    public ResponseEntity<?> handleAlreadyIssued(CouponAlreadyIssuedException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of(
+                        "status", "DUPLICATE",
+                        "message", e.getMessage()
+                ));
+    }
+
+    @ExceptionHandler(CouponIssueThrottledException.class)
+    public ResponseEntity<?> handleThrottled(CouponIssueThrottledException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of(
+                        "status", "THROTTLED",
+                        "message", e.getMessage()
+                ));
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<?> handleLoginThrottled(LoginThrottledException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of(
+                        "status", "THROTTLED",
+                        "message", e.getMessage()
+                ));
+    }
+
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<?> handleInvalidRefreshToken(InvalidRefreshTokenException e) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of(
+                        "status", "INVALID_REFRESH_TOKEN",
+                        "message", e.getMessage()
+                ));
+    }
+
+    @ExceptionHandler(CouponIssueUnavailableException.class)
+    public ResponseEntity<?> handleUnavailable(CouponIssueUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of(
+                        "status", "UNAVAILABLE",
+                        "message", e.getMessage()
+                ));
+    }
 }
@@ -0,0 +1,7 @@
+package com.example.coupon.exception;
+
+public class InvalidRefreshTokenException extends RuntimeException {
+    public InvalidRefreshTokenException() {
+        super("Refresh token is invalid or already used");
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.coupon.exception;
+
+import lombok.Getter;
+
+@Getter
+public class LoginThrottledException extends RuntimeException {
+
+    // 재시도까지 대기 시간(초)
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(long retryAfterSeconds) {
+        super("Login requests are throttled");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
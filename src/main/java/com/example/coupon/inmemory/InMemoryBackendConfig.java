@@ -0,0 +1,50 @@
+package com.example.coupon.inmemory;
+
+import com.example.coupon.dto.CouponIssueEvent;
+import com.example.coupon.service.CouponIssueService;
+import com.example.coupon.service.GateStockReleaser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.Map;
+
+/**
+ * inmemory 프로필: Redis / Kafka 없이 전체 발급 파이프라인 실행 (DB 는 H2)
+ * - StringRedisTemplate → InMemoryRedisTemplate (InMemoryStockStore)
+ * - coupon-issue 토픽 → InMemoryIssueQueue (파티션/Consumer 수 설정 가능)
+ * Boot 자동 설정의 StringRedisTemplate / KafkaTemplate 은 이 빈들이 있으면 생성되지 않는다.
+ */
+@Configuration
+@Profile("inmemory")
+public class InMemoryBackendConfig {
+
+    @Bean
+    public InMemoryStockStore inMemoryStockStore() {
+        return new InMemoryStockStore();
+    }
+
+    // 인메모리로 실행할 수 없는 스크립트 빈이 있으면 기동 실패 (InMemoryRedisTemplate)
+    @Bean
+    public StringRedisTemplate stringRedisTemplate(InMemoryStockStore inMemoryStockStore,
+                                                   Map<String, RedisScript<?>> redisScripts) {
+        return new InMemoryRedisTemplate(inMemoryStockStore, redisScripts);
+    }
+
+    @Bean
+    public InMemoryIssueQueue inMemoryIssueQueue(CouponIssueService couponIssueService,
+                                                 GateStockReleaser gateStockReleaser,
+                                                 @Value("${coupon.inmemory.partitions:10}") int partitions,
+                                                 @Value("${coupon.inmemory.consumers:10}") int consumers) {
+        return new InMemoryIssueQueue(couponIssueService, gateStockReleaser, partitions, consumers);
+    }
+
+    @Bean
+    public KafkaTemplate<String, CouponIssueEvent> couponIssueKafkaTemplate(InMemoryIssueQueue inMemoryIssueQueue) {
+        return new InMemoryKafkaTemplate(inMemoryIssueQueue);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.coupon.inmemory;
+
+import com.example.coupon.dto.CouponIssueEvent;
+import com.example.coupon.dto.CouponIssueStatus;
+import com.example.coupon.service.CouponIssueService;
+import com.example.coupon.service.GateStockReleaser;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * coupon-issue 토픽 대체 인메모리 큐 (inmemory 프로필)
+ * - partitions 개의 파티션, consumers 개의 Consumer 스레드 (파티션 p → Consumer p % consumers)
+ * - 파티션 내 순서 보장, 처리는 CouponIssueService.consume 그대로 호출
+ * - 처리 실패는 재시도/DLT 없이 바로 DLT 처리와 같게 게이트 재고 반납 후 건너뜀
+ * 이벤트별 enqueue → 처리 완료 지연을 Consumer 별로 기록해 부하 드라이버에 제공
+ */
+@Slf4j
+public class InMemoryIssueQueue {
+
+    private final CouponIssueService couponIssueService;
+    private final GateStockReleaser gateStockReleaser;
+    private final int partitions;
+    private final Worker[] workers;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public InMemoryIssueQueue(CouponIssueService couponIssueService, GateStockReleaser gateStockReleaser,
+                              int partitions, int consumers) {
+        this.couponIssueService = couponIssueService;
+        this.gateStockReleaser = gateStockReleaser;
+        this.partitions = partitions;
+        this.workers = new Worker[Math.min(consumers, partitions)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(i);
+            workers[i].start();
+        }
+        log.info("In-memory coupon-issue queue started. partitions: {}, consumers: {}", partitions, workers.length);
+    }
+
+    public int partitions() {
+        return partitions;
+    }
+
+    /**
+     * @return 오프셋 (파티션 무관 전체 순번)
+     */
+    public long send(int partition, CouponIssueEvent event) {
+        long offset = enqueued.getAndIncrement();
+        workers[partition % workers.length].queue.add(new Record(partition, event, System.nanoTime()));
+        return offset;
+    }
+
+    public long lag() {
+        return enqueued.get() - processed.get();
+    }
+
+    public long failed() {
+        return failed.get();
+    }
+
+    // 큐가 빌 때까지 대기
+    public boolean awaitDrained(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (lag() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    // enqueue → 처리 완료 지연(ns), 처리 순서 무관
+    public long[] endToEndLatencies() {
+        return Arrays.stream(workers)
+                .flatMapToLong(worker -> Arrays.stream(worker.latencies, 0, worker.latencyCount))
+                .toArray();
+    }
+
+    public void resetLatencies() {
+        for (Worker worker : workers) {
+            worker.resetRequested = true;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Worker worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    private record Record(int partition, CouponIssueEvent event, long enqueuedAt) {
+    }
+
+    private final class Worker extends Thread {
+
+        private final BlockingQueue<Record> queue = new LinkedBlockingQueue<>();
+        // 단일 writer (이 스레드), 읽기는 drain 이후
+        private long[] latencies = new long[1024];
+        private volatile int latencyCount;
+        private volatile boolean resetRequested;
+
+        private Worker(int index) {
+            super("inmemory-coupon-issue-" + index);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                Record record;
+                try {
+                    record = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    couponIssueService.consume(record.event(), record.partition());
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    log.debug("In-memory coupon issue failed. couponId: {}, username: {}, reason: {}",
+                            record.event().getCouponId(), record.event().getUsername(), e.getMessage());
+                    gateStockReleaser.releaseAfterCommit(record.event(), CouponIssueStatus.FAILED);
+                } finally {
+                    recordLatency(System.nanoTime() - record.enqueuedAt());
+                    processed.incrementAndGet();
+                }
+            }
+        }
+
+        private void recordLatency(long nanos) {
+            if (resetRequested) {
+                latencyCount = 0;
+                resetRequested = false;
+            }
+            if (latencyCount == latencies.length) {
+                latencies = Arrays.copyOf(latencies, latencies.length * 2);
+            }
+            latencies[latencyCount] = nanos;
+            latencyCount = latencyCount + 1;
+        }
+    }
+}
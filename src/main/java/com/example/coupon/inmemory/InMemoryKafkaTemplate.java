@@ -0,0 +1,77 @@
+package com.example.coupon.inmemory;
+
+import com.example.coupon.dto.CouponIssueEvent;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * coupon-issue 발행을 InMemoryIssueQueue 로 보내는 KafkaTemplate (inmemory 프로필)
+ * - 파티션은 Kafka 기본 파티셔너와 같은 방식(murmur2(key) % partitions)으로 결정
+ * - 브로커가 없으므로 ProducerFactory 는 생성만 하고 사용하지 않음 (토픽/파티션/ProducerRecord send 오버로드 모두 큐로 보냄)
+ */
+public class InMemoryKafkaTemplate extends KafkaTemplate<String, CouponIssueEvent> {
+
+    private static final String TOPIC = "coupon-issue";
+
+    private final InMemoryIssueQueue queue;
+
+    public InMemoryKafkaTemplate(InMemoryIssueQueue queue) {
+        super(new DefaultKafkaProducerFactory<>(Map.of()));
+        this.queue = queue;
+    }
+
+    @Override
+    public CompletableFuture<SendResult<String, CouponIssueEvent>> send(String topic, CouponIssueEvent data) {
+        return send(new ProducerRecord<>(topic, data));
+    }
+
+    @Override
+    public CompletableFuture<SendResult<String, CouponIssueEvent>> send(String topic, String key, CouponIssueEvent data) {
+        return send(new ProducerRecord<>(topic, key, data));
+    }
+
+    @Override
+    public CompletableFuture<SendResult<String, CouponIssueEvent>> send(String topic, Integer partition, String key,
+                                                                       CouponIssueEvent data) {
+        return send(new ProducerRecord<>(topic, partition, key, data));
+    }
+
+    @Override
+    public CompletableFuture<SendResult<String, CouponIssueEvent>> send(String topic, Integer partition, Long timestamp,
+                                                                       String key, CouponIssueEvent data) {
+        return send(new ProducerRecord<>(topic, partition, timestamp, key, data));
+    }
+
+    /**
+     * 모든 send 오버로드가 여기로 모임 (실제 Producer 로 내려가지 않음)
+     * coupon-issue 외 토픽은 소비할 큐가 없으므로 실패한 future 로 응답 (발행측의 send 실패 처리를 그대로 탐)
+     */
+    @Override
+    public CompletableFuture<SendResult<String, CouponIssueEvent>> send(ProducerRecord<String, CouponIssueEvent> record) {
+        if (!TOPIC.equals(record.topic()) || record.value() == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                    "Only non-null events to " + TOPIC + " are supported by the inmemory profile. topic: " + record.topic()));
+        }
+        String key = record.key();
+        int partition = record.partition() != null
+                ? Math.floorMod(record.partition(), queue.partitions())
+                : key == null
+                ? ThreadLocalRandom.current().nextInt(queue.partitions())
+                : Utils.toPositive(Utils.murmur2(key.getBytes(StandardCharsets.UTF_8))) % queue.partitions();
+        long offset = queue.send(partition, record.value());
+
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition(record.topic(), partition), offset, 0,
+                System.currentTimeMillis(), -1, -1);
+        return CompletableFuture.completedFuture(new SendResult<>(record, metadata));
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.coupon.inmemory;
+
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InMemoryStockStore 위에서 동작하는 StringRedisTemplate (inmemory 프로필)
+ * - 애플리케이션이 사용하는 연산만 지원
+ *   GET/MGET/SET/SETNX(TTL 오버로드 포함, TTL 은 무시)/INCR/DECR, HGET/HMGET/HSET/HSETNX/HINCRBY,
+ *   SADD/SREM/SISMEMBER/SMEMBERS, DEL/EXISTS/EXPIRE(무시)
+ * - Lua 스크립트는 빈 이름으로 InMemoryStockStore 의 같은 의미 연산에 연결
+ *   컨텍스트에 연결되지 않은 RedisScript 빈이 있으면 기동 시점에 목록과 함께 실패 (요청 중에 터지지 않도록)
+ * - 파이프라인(SessionCallback)은 순서대로 즉시 실행하고 결과만 모아서 반환
+ * - 그 외 연산은 UnsupportedOperationException (지원 목록은 위와 같음)
+ * - 단일 JVM 이므로 pub/sub 은 전파할 노드가 없어 무시 (발행한 노드는 이미 로컬 상태를 갱신함)
+ */
+public class InMemoryRedisTemplate extends StringRedisTemplate {
+
+    private final InMemoryStockStore store;
+    private final Map<RedisScript<?>, ScriptOperation> scripts = new IdentityHashMap<>();
+    private final ValueOperations<String, String> valueOps;
+    private final HashOperations<String, Object, Object> hashOps;
+    private final SetOperations<String, String> setOps;
+
+    // executePipelined 중인 스레드의 결과 목록
+    private final ThreadLocal<List<Object>> pipeline = new ThreadLocal<>();
+
+    /**
+     * @param scriptBeans 컨텍스트의 RedisScript 빈 (빈 이름 → 스크립트)
+     * @throws IllegalStateException 인메모리로 실행할 수 없는 스크립트 빈이 있으면
+     */
+    public InMemoryRedisTemplate(InMemoryStockStore store, Map<String, RedisScript<?>> scriptBeans) {
+        this.store = store;
+        Map<String, ScriptOperation> supported = Map.of(
+                "couponIssueGateScript", (keys, args) -> store.gate(keys.get(0), keys.get(1), key(keys, 2), arg(args, 0), arg(args, 1)),
+                "couponSplitGateScript", (keys, args) -> store.splitGate(keys.get(0), keys.get(1), arg(args, 0), arg(args, 1)),
+                "couponStockDecrScript", (keys, args) -> store.decr(keys.get(0), key(keys, 1), arg(args, 0)),
+                "couponStockLeaseScript", (keys, args) -> store.lease(keys.get(0), Long.parseLong(arg(args, 0)), arg(args, 1)),
+                "couponStockReleaseScript", (keys, args) -> store.release(keys.get(0), Long.parseLong(arg(args, 0))),
+                "couponIssuedCountScript", (keys, args) -> store.issuedCount(keys.get(0), Long.parseLong(arg(args, 0))),
+                "couponStockSeedScript", (keys, args) -> store.seed(keys.get(0), arg(args, 0)),
+                "refreshTokenRotateScript", (keys, args) -> store.compareAndSet(keys.get(0), arg(args, 0), arg(args, 1))
+        );
+        List<String> unsupported = new ArrayList<>();
+        scriptBeans.forEach((name, script) -> {
+            ScriptOperation operation = supported.get(name);
+            if (operation == null) {
+                unsupported.add(name);
+            } else {
+                scripts.put(script, operation);
+            }
+        });
+        if (!unsupported.isEmpty()) {
+            throw new IllegalStateException("Redis scripts not supported by the inmemory profile: " + unsupported
+                    + " (supported: " + new TreeSet<>(supported.keySet()) + ")");
+        }
+
+        this.valueOps = proxy(ValueOperations.class, (method, args) -> switch (method) {
+            case "get" -> store.get((String) args[0]);
+            case "multiGet" -> store.multiGet((Collection<String>) args[0]);
+            // set(k, v) / set(k, v, Duration) / set(k, v, timeout, unit)
+            case "set" -> {
+                store.set((String) args[0], (String) args[1]);
+                yield null;
+            }
+            case "setIfAbsent" -> store.setIfAbsent((String) args[0], (String) args[1]);
+            case "increment" -> store.incrementBy((String) args[0], args.length > 1 ? ((Number) args[1]).longValue() : 1);
+            case "decrement" -> store.incrementBy((String) args[0], args.length > 1 ? -((Number) args[1]).longValue() : -1);
+            default -> throw unsupported("ValueOperations." + method);
+        });
+        this.hashOps = proxy(HashOperations.class, (method, args) -> switch (method) {
+            case "get" -> store.hashGet((String) args[0], String.valueOf(args[1]));
+            case "multiGet" -> store.hashMultiGet((String) args[0],
+                    ((Collection<?>) args[1]).stream().map(String::valueOf).toList());
+            case "put" -> {
+                store.hashSet((String) args[0], String.valueOf(args[1]), String.valueOf(args[2]));
+                yield null;
+            }
+            case "putIfAbsent" -> store.hashSetIfAbsent((String) args[0], String.valueOf(args[1]), String.valueOf(args[2]));
+            case "increment" -> store.hashIncrementBy((String) args[0], String.valueOf(args[1]), ((Number) args[2]).longValue());
+            default -> throw unsupported("HashOperations." + method);
+        });
+        this.setOps = proxy(SetOperations.class, (method, args) -> switch (method) {
+            case "add" -> sum(args, store::add);
+            case "remove" -> sum(args, store::remove);
+            case "isMember" -> store.isMember((String) args[0], String.valueOf(args[1]));
+            case "members" -> store.members((String) args[0]);
+            default -> throw unsupported("SetOperations." + method);
+        });
+    }
+
+    // 커넥션 팩토리 없이 사용
+    @Override
+    public void afterPropertiesSet() {
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+        ScriptOperation operation = scripts.get(script);
+        if (operation == null) {
+            throw unsupported("script " + script.getSha1());
+        }
+        return (T) Long.valueOf(operation.apply(keys, args));
+    }
+
+    @Override
+    public ValueOperations<String, String> opsForValue() {
+        return valueOps;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <HK, HV> HashOperations<String, HK, HV> opsForHash() {
+        return (HashOperations<String, HK, HV>) (HashOperations<String, ?, ?>) hashOps;
+    }
+
+    @Override
+    public SetOperations<String, String> opsForSet() {
+        return setOps;
+    }
+
+    @Override
+    public List<Object> executePipelined(SessionCallback<?> session) {
+        List<Object> results = new ArrayList<>();
+        pipeline.set(results);
+        try {
+            session.execute(this);
+        } finally {
+            pipeline.remove();
+        }
+        return results;
+    }
+
+    @Override
+    public Boolean delete(String key) {
+        return store.delete(key);
+    }
+
+    @Override
+    public Long delete(Collection<String> keys) {
+        long deleted = 0;
+        for (String key : keys) {
+            deleted += store.delete(key) ? 1 : 0;
+        }
+        return deleted;
+    }
+
+    @Override
+    public Boolean hasKey(String key) {
+        return store.exists(key);
+    }
+
+    // TTL 미지원: 키가 있으면 성공으로만 응답
+    @Override
+    public Boolean expire(String key, long timeout, TimeUnit unit) {
+        return store.exists(key);
+    }
+
+    @Override
+    public Boolean expire(String key, Duration timeout) {
+        return store.exists(key);
+    }
+
+    @Override
+    public Long convertAndSend(String channel, Object message) {
+        return 0L;
+    }
+
+    private static String arg(Object[] args, int index) {
+        return String.valueOf(args[index]);
+    }
+
+    // 선택 KEYS 인자 (없으면 null)
+    private static String key(List<String> keys, int index) {
+        return keys.size() > index ? keys.get(index) : null;
+    }
+
+    private static UnsupportedOperationException unsupported(String operation) {
+        return new UnsupportedOperationException("Redis operation not supported by the inmemory profile: " + operation);
+    }
+
+    // SADD/SREM key m1 m2 ... → 반영된 member 수
+    private static long sum(Object[] args, MemberOperation operation) {
+        String key = (String) args[0];
+        Object[] members = args.length > 1 && args[1] instanceof Object[] varargs ? varargs : new Object[]{args[1]};
+        long changed = 0;
+        for (Object member : members) {
+            changed += operation.apply(key, String.valueOf(member));
+        }
+        return changed;
+    }
+
+    // 파이프라인 중이면 결과를 모으고 null 반환 (Redis 파이프라인과 같은 동작)
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<?> type, Operation operation) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (self, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return switch (method.getName()) {
+                            case "equals" -> self == args[0];
+                            case "hashCode" -> System.identityHashCode(self);
+                            default -> "InMemory" + type.getSimpleName();
+                        };
+                    }
+                    Object result = operation.apply(method.getName(), args == null ? new Object[0] : args);
+                    List<Object> results = pipeline.get();
+                    if (results == null) {
+                        return result;
+                    }
+                    results.add(result);
+                    return null;
+                });
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        Object apply(String method, Object[] args);
+    }
+
+    @FunctionalInterface
+    private interface ScriptOperation {
+        long apply(List<String> keys, Object[] args);
+    }
+
+    @FunctionalInterface
+    private interface MemberOperation {
+        long apply(String key, String member);
+    }
+}
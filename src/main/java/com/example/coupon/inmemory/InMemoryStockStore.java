@@ -0,0 +1,273 @@
+package com.example.coupon.inmemory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redis 대체용 인메모리 재고/카운터 저장소 (inmemory 프로필)
+ * - 문자열(GET/SET/SETNX/INCRBY) + 해시 카운터(HGET/HSETNX/HINCRBY) + 집합(SADD/SREM/SISMEMBER)
+ * - 애플리케이션의 Lua 스크립트와 같은 의미의 연산을 키 단위 락 안에서 원자적으로 수행
+ * - TTL 은 지원하지 않음 (단일 JVM 부하 실행 동안만 쓰므로 만료 대상 키가 쌓여도 무방)
+ */
+public class InMemoryStockStore {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, AtomicLong>> hashes = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> sets = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public InMemoryStockStore() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    public List<String> multiGet(Collection<String> keys) {
+        List<String> result = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            result.add(get(key));
+        }
+        return result;
+    }
+
+    public void set(String key, String value) {
+        values.put(key, value);
+    }
+
+    public boolean setIfAbsent(String key, String value) {
+        return values.putIfAbsent(key, value) == null;
+    }
+
+    public long incrementBy(String key, long delta) {
+        return Long.parseLong(values.compute(key,
+                (k, value) -> String.valueOf((value == null ? 0 : Long.parseLong(value)) + delta)));
+    }
+
+    public boolean delete(String key) {
+        return values.remove(key) != null | hashes.remove(key) != null | sets.remove(key) != null;
+    }
+
+    public boolean exists(String key) {
+        return values.containsKey(key) || hashes.containsKey(key) || sets.containsKey(key);
+    }
+
+    public String hashGet(String key, String field) {
+        Map<String, AtomicLong> hash = hashes.get(key);
+        AtomicLong value = hash == null ? null : hash.get(field);
+        return value == null ? null : String.valueOf(value.get());
+    }
+
+    public List<String> hashMultiGet(String key, Collection<String> fields) {
+        List<String> values = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            values.add(hashGet(key, field));
+        }
+        return values;
+    }
+
+    public void hashSet(String key, String field, String value) {
+        hash(key).put(field, new AtomicLong(Long.parseLong(value)));
+    }
+
+    public boolean hashSetIfAbsent(String key, String field, String value) {
+        return hash(key).putIfAbsent(field, new AtomicLong(Long.parseLong(value))) == null;
+    }
+
+    public long hashIncrementBy(String key, String field, long delta) {
+        return hash(key).computeIfAbsent(field, f -> new AtomicLong()).addAndGet(delta);
+    }
+
+    public long add(String key, String member) {
+        return sets.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(member) ? 1 : 0;
+    }
+
+    public long remove(String key, String member) {
+        Set<String> members = sets.get(key);
+        return members != null && members.remove(member) ? 1 : 0;
+    }
+
+    public boolean isMember(String key, String member) {
+        Set<String> members = sets.get(key);
+        return members != null && members.contains(member);
+    }
+
+    public Set<String> members(String key) {
+        Set<String> members = sets.get(key);
+        return members == null ? Set.of() : Set.copyOf(members);
+    }
+
+    /**
+     * coupon-issue-gate.lua 와 같은 의미
+     * @param resultKey 수락 시 지울 발급 결과 키 (null 이면 생략)
+     * @return >= 0 남은 재고, -1 SOLD OUT, -2 중복, -3 미초기화
+     */
+    public long gate(String hashKey, String usersKey, String resultKey, String member, String limit) {
+        synchronized (lockFor(hashKey)) {
+            AtomicLong stock = initStock(hashKey, limit);
+            if (stock == null) {
+                return -3;
+            }
+            if (!member.isEmpty() && isMember(usersKey, member)) {
+                return -2;
+            }
+            if (stock.get() <= 0) {
+                return -1;
+            }
+            long remain = stock.decrementAndGet();
+            if (!member.isEmpty()) {
+                add(usersKey, member);
+            }
+            if (resultKey != null) {
+                values.remove(resultKey);
+            }
+            return remain;
+        }
+    }
+
+    /**
+     * coupon-stock-seed.lua 와 같은 의미 (만료 시각은 무시)
+     * @return 1 새로 세팅, 0 이미 stock 필드가 있음
+     */
+    public long seed(String hashKey, String limit) {
+        synchronized (lockFor(hashKey)) {
+            if (hash(hashKey).containsKey("stock")) {
+                return 0;
+            }
+            hashSet(hashKey, "limit", limit);
+            hashSet(hashKey, "stock", limit);
+            hashSetIfAbsent(hashKey, "count", "0");
+            hashSetIfAbsent(hashKey, "issued_total", "0");
+            return 1;
+        }
+    }
+
+    /**
+     * refresh-token-rotate.lua 와 같은 의미 (TTL 은 무시)
+     * @return 1 교체, 0 저장값과 다름
+     */
+    public long compareAndSet(String key, String expected, String value) {
+        synchronized (lockFor(key)) {
+            if (!expected.equals(values.get(key))) {
+                return 0;
+            }
+            values.put(key, value);
+            return 1;
+        }
+    }
+
+    /**
+     * coupon-stock-decr.lua 와 같은 의미
+     * @param resultKey 차감 시 지울 발급 결과 키 (null 이면 생략)
+     * @return >= 0 차감 후 남은 재고, -1 SOLD OUT
+     */
+    public long decr(String hashKey, String resultKey, String limit) {
+        synchronized (lockFor(hashKey)) {
+            AtomicLong stock = initStock(hashKey, limit);
+            if (stock.get() <= 0) {
+                return -1;
+            }
+            long remain = stock.decrementAndGet();
+            if (resultKey != null) {
+                values.remove(resultKey);
+            }
+            return remain;
+        }
+    }
+
+    /**
+     * coupon-split-gate.lua 와 같은 의미
+     * @return >= 0 차감 후 샤드 재고, -1 샤드 재고 없음 (member 는 선점된 채), -2 중복
+     */
+    public long splitGate(String shardKey, String usersKey, String member, String share) {
+        synchronized (lockFor(shardKey)) {
+            AtomicLong stock = initStock(shardKey, share);
+            if (!member.isEmpty() && add(usersKey, member) == 0) {
+                return -2;
+            }
+            if (stock.get() <= 0) {
+                return -1;
+            }
+            return stock.decrementAndGet();
+        }
+    }
+
+    /**
+     * coupon-stock-lease.lua 와 같은 의미
+     * @return >= 0 임대 수량 (0 이면 SOLD OUT), -3 미초기화
+     */
+    public long lease(String hashKey, long requested, String limit) {
+        synchronized (lockFor(hashKey)) {
+            AtomicLong stock = initStock(hashKey, limit);
+            if (stock == null) {
+                return -3;
+            }
+            long granted = Math.min(Math.max(stock.get(), 0), requested);
+            stock.addAndGet(-granted);
+            return granted;
+        }
+    }
+
+    /**
+     * coupon-stock-release.lua 와 같은 의미
+     * @return >= 0 반납 후 stock, -1 stock 없음 (반납하지 않음)
+     */
+    public long release(String hashKey, long amount) {
+        synchronized (lockFor(hashKey)) {
+            Map<String, AtomicLong> hash = hashes.get(hashKey);
+            AtomicLong stock = hash == null ? null : hash.get("stock");
+            return stock == null ? -1 : stock.addAndGet(amount);
+        }
+    }
+
+    /**
+     * coupon-issued-count.lua 와 같은 의미
+     * @return 갱신 후 count
+     */
+    public long issuedCount(String hashKey, long delta) {
+        synchronized (lockFor(hashKey)) {
+            long count = hashIncrementBy(hashKey, "count", delta);
+            if (delta > 0) {
+                hashIncrementBy(hashKey, "issued_total", delta);
+            }
+            return count;
+        }
+    }
+
+    private AtomicLong initStock(String hashKey, String limit) {
+        Map<String, AtomicLong> hash = hash(hashKey);
+        AtomicLong stock = hash.get("stock");
+        if (stock != null) {
+            return stock;
+        }
+        if (limit.isEmpty()) {
+            AtomicLong stored = hash.get("limit");
+            if (stored == null) {
+                return null;
+            }
+            limit = String.valueOf(stored.get());
+        } else {
+            hashSet(hashKey, "limit", limit);
+        }
+        hashSet(hashKey, "stock", limit);
+        return hash.get("stock");
+    }
+
+    private Map<String, AtomicLong> hash(String key) {
+        return hashes.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+    }
+
+    private Object lockFor(String key) {
+        return locks[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.coupon.jwt;
+
+import org.springframework.security.core.Authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 검증이 끝난 AccessToken → Authentication 캐시
+ * - 키는 토큰 원문이 아닌 SHA-256 digest
+ * - 만료 시각은 min(캐시 ttl, 토큰 exp)
+ * - digest 로 나눈 세그먼트별 access-order LRU (세그먼트 락으로 경합 분산)
+ * - 세그먼트 상한(maxSize / 세그먼트 수)을 넘으면 삽입할 때 가장 오래 안 쓴 항목 하나만 제거 (전체 스캔 없음)
+ * - 만료 항목은 조회 시점에 제거하고, 조회되지 않는 만료 항목은 LRU 로 밀려나며 정리
+ */
+public class JwtAuthenticationCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final long ttlMillis;
+
+    public JwtAuthenticationCache(long ttlMillis, int maxSize) {
+        this.ttlMillis = ttlMillis;
+        // 0 이하면 캐싱하지 않음
+        int segmentSize = maxSize <= 0 ? 0 : Math.max(1, maxSize / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    public Authentication get(String token) {
+        String digest = digest(token);
+        Segment segment = segmentOf(digest);
+        synchronized (segment) {
+            Entry entry = segment.get(digest);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAtMillis <= System.currentTimeMillis()) {
+                segment.remove(digest);
+                return null;
+            }
+            return entry.authentication;
+        }
+    }
+
+    public void put(String token, Authentication authentication, long tokenExpiresAtMillis) {
+        long now = System.currentTimeMillis();
+        long expiresAt = Math.min(now + ttlMillis, tokenExpiresAtMillis);
+        if (expiresAt <= now) {
+            return;
+        }
+        String digest = digest(token);
+        Segment segment = segmentOf(digest);
+        synchronized (segment) {
+            segment.put(digest, new Entry(authentication, expiresAt));
+        }
+    }
+
+    private Segment segmentOf(String digest) {
+        return segments[(digest.hashCode() & 0x7fffffff) % SEGMENTS];
+    }
+
+    private String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    private record Entry(Authentication authentication, long expiresAtMillis) {
+    }
+
+    // synchronized(segment) 안에서만 접근
+    private static final class Segment extends LinkedHashMap<String, Entry> {
+
+        private final int maxSize;
+
+        private Segment(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
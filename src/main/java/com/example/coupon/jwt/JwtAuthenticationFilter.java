@@ -30,11 +30,11 @@ public class JwtAuthenticationFilter extends GenericFilter {
             return;
         }
 
-        // accessToken 유효성 검사하기
+        // accessToken 유효성 검사하기 (검증 + Authentication 생성을 한 번에, 같은 토큰은 캐시 사용)
         if (accessToken != null) {
-            if (jwtTokenProvider.validateToken(accessToken)) {
-                // 토큰이 유효할 경우, 토큰에서 Authentication 객체를 가지고 와서 SecurityContext에 저장함
-                Authentication authentication = jwtTokenProvider.getAuthentication(accessToken); // 토큰에 있는 정보 꺼내기
+            Authentication authentication = jwtTokenProvider.authenticate(accessToken);
+            if (authentication != null) {
+                // 토큰이 유효할 경우, 토큰에서 꺼낸 Authentication 객체를 SecurityContext에 저장함
                 SecurityContextHolder.getContext().setAuthentication(authentication); // 현재 실행 중인 스레드에 인증 정보를 저장
             } else {
                 // 토큰이 유효하지 않은 경우, 더 이상의 필터 처리 하지 않음
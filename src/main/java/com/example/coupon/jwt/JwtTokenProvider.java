@@ -2,6 +2,7 @@ package com.example.coupon.jwt;
 
 import com.example.coupon.dao.RedisDao;
 import com.example.coupon.dto.JwtToken;
+import com.example.coupon.exception.InvalidRefreshTokenException;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 
@@ -11,7 +12,6 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
@@ -19,8 +19,11 @@ import java.security.Key;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Base64;
-import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 //JWT를 생성하고 검증하는 등의 핵심 기능을 제공하는 클래스
@@ -29,9 +32,17 @@ import java.util.stream.Collectors;
 @Component
 public class JwtTokenProvider {
     private final Key key;
+    private final JwtParser jwtParser; // 불변 + thread-safe 이므로 한 번만 생성해서 재사용
+    private final JwtAuthenticationCache authenticationCache;
     private final RedisDao redisDao; // RefreshToken 저장을 위해 Redis 사용
 
+    // 권한 문자열("ROLE_USER,...") → 권한 목록 (종류가 몇 개 안 되므로 매번 split 하지 않음)
+    private final Map<String, List<GrantedAuthority>> authoritiesCache = new ConcurrentHashMap<>();
+
     private static final String GRANT_TYPE = "Bearer";
+    // 토큰 종류 클레임: RefreshToken 에만 넣어 AccessToken 자리에 쓰이지 않게 함
+    private static final String TOKEN_TYPE = "typ";
+    private static final String REFRESH_TYPE = "refresh";
 
     @Value("${jwt.access-token.expire-time}") // 1000 * 60 * 60 * 24 = 1일
     private long ACCESS_TOKEN_EXPIRE_TIME;
@@ -41,9 +52,15 @@ public class JwtTokenProvider {
 
     // application.properties에서 secret 값 가져와서 secretKey 사용하기
     public JwtTokenProvider(@Value("${jwt.secret}") String secretKey,
+                            @Value("${jwt.auth-cache.ttl-ms:60000}") long authCacheTtlMillis,
+                            @Value("${jwt.auth-cache.max-size:100000}") int authCacheMaxSize,
                             RedisDao redisDao) {
         byte[] keyBytes = Base64.getEncoder().encode(secretKey.getBytes());
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.authenticationCache = new JwtAuthenticationCache(authCacheTtlMillis, authCacheMaxSize);
         this.redisDao = redisDao;
     }
 
@@ -55,20 +72,54 @@ public class JwtTokenProvider {
                 .map(GrantedAuthority::getAuthority) // 각 GrantedAuthority 객체에서 권한 문자열만 추출하기
                 .collect(Collectors.joining(",")); // 추출된 권한 문자열들을 쉼표로 구분하여 하나의 문자열로 결합하기
 
-        long now = (new Date()).getTime();
         String username = authentication.getName();
+        JwtToken token = createToken(username, MemberPrincipal.idOf(principalOf(authentication)), authorities);
+
+        // Redis에 RefreshToken 넣기
+        // "REFRESH_TOKEN_EXPIRE_TIME"만큼 시간이 지나면 삭제됨
+        redisDao.setValues(username, token.getRefreshToken(), Duration.ofMillis(REFRESH_TOKEN_EXPIRE_TIME));
+        return token;
+    }
+
+    /**
+     * RefreshToken 으로 토큰 재발급 (Rotation)
+     * - 서명/만료 검증 후 RefreshToken 에 담긴 uid/권한으로 새 토큰 생성 (DB 조회, BCrypt 없음)
+     * - Redis 저장값 비교 + 새 RefreshToken 저장을 스크립트 한 번으로 처리
+     * - 이미 교체된(재사용된) RefreshToken 이나 로그아웃된 사용자는 실패
+     */
+    public JwtToken refresh(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtParser.parseClaimsJws(refreshToken).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.info("Invalid refresh token. reason: {}", e.toString());
+            throw new InvalidRefreshTokenException();
+        }
+        // RefreshToken 이 아니거나 권한 클레임이 없는 이전 RefreshToken 은 다시 로그인
+        if (!isRefreshToken(claims) || claims.get("auth") == null) {
+            throw new InvalidRefreshTokenException();
+        }
+
+        String username = claims.getSubject();
+        JwtToken token = createToken(username, claims.get("uid", Long.class), claims.get("auth").toString());
+        if (!redisDao.compareAndSet(username, refreshToken, token.getRefreshToken(),
+                Duration.ofMillis(REFRESH_TOKEN_EXPIRE_TIME))) {
+            log.info("Refresh token is not the latest one. username: {}", username);
+            throw new InvalidRefreshTokenException();
+        }
+        return token;
+    }
+
+    private JwtToken createToken(String username, Long memberId, String authorities) {
+        long now = (new Date()).getTime();
 
         // AccessToken 생성
         Date accessTokenExpire = new Date(now + ACCESS_TOKEN_EXPIRE_TIME);
-        String accessToken = generateAccessToken(username, authorities, accessTokenExpire);
+        String accessToken = generateAccessToken(username, memberId, authorities, accessTokenExpire);
 
         // RefreshToken 생성
         Date refreshTokenExpire = new Date(now + REFRESH_TOKEN_EXPIRE_TIME);
-        String refreshToken = generateRefreshToken(username, refreshTokenExpire);
-
-        // Redis에 RefreshToken 넣기
-        // "REFRESH_TOKEN_EXPIRE_TIME"만큼 시간이 지나면 삭제됨
-        redisDao.setValues(username, refreshToken, Duration.ofMillis(REFRESH_TOKEN_EXPIRE_TIME));
+        String refreshToken = generateRefreshToken(username, memberId, authorities, refreshTokenExpire);
 
         return JwtToken.builder()
                 .grantType(GRANT_TYPE) // "Bearer"
@@ -79,24 +130,84 @@ public class JwtTokenProvider {
 
 
     //    AccessToken에는 인증된 사용자 정보와 권한 정보, 토큰 만료 시간을 포함하고 있다.
-    //    RefreshToken은 AccessToken 재발급 용도로만 사용하므로, 토큰 만료 시간만 포함하고 있다.
-    private String generateAccessToken(String username, String authorities, Date expireDate) {
-        return Jwts.builder()
+    //    RefreshToken은 AccessToken 재발급 용도로만 사용하므로, 재발급에 필요한 uid/권한과 만료 시간만 포함하고 있다.
+    //    (jti 로 매번 다른 토큰을 만들어 교체 전 토큰 재사용을 구분, typ=refresh 로 AccessToken 으로는 거부)
+    private String generateAccessToken(String username, Long memberId, String authorities, Date expireDate) {
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(username) // 토큰 제목 (사용자 이름)
-                .claim("auth", authorities) // 권한 정보 (커스텀 클레임)
+                .claim("auth", authorities); // 권한 정보 (커스텀 클레임)
+        if (memberId != null) {
+            builder.claim("uid", memberId); // users.id (발급 요청 시 유저 조회 생략)
+        }
+        return builder
                 .setExpiration(expireDate) // 토큰 만료 시간
                 .signWith(key, SignatureAlgorithm.HS256) // 지정된 키와 알고리즘으로 서명
                 .compact(); // 최종 JWT 문자열 생성 (header.payload.signature 구조);
     }
 
-    private String generateRefreshToken(String username, Date expireDate) {
-        return Jwts.builder()
+    private String generateRefreshToken(String username, Long memberId, String authorities, Date expireDate) {
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(username)
+                .setId(UUID.randomUUID().toString())
+                .claim(TOKEN_TYPE, REFRESH_TYPE)
+                .claim("auth", authorities);
+        if (memberId != null) {
+            builder.claim("uid", memberId);
+        }
+        return builder
                 .setExpiration(expireDate)
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * AccessToken 검증 + Authentication 생성을 한 번의 파싱으로 처리 (필터 전용)
+     * - 같은 토큰이 반복해서 들어오면 캐시에서 바로 반환 (서명 검증/JSON 파싱 생략)
+     * @return 유효하지 않은 토큰이면 null
+     */
+    public Authentication authenticate(String accessToken) {
+        Authentication cached = authenticationCache.get(accessToken);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            Claims claims = jwtParser.parseClaimsJws(accessToken).getBody(); // 서명 검증 + 만료 확인 + payload 추출
+            if (claims.get("auth") == null) {
+                log.info("JWT Token has no authorities");
+                return null;
+            }
+            if (isRefreshToken(claims)) {
+                log.info("Refresh token used as access token");
+                return null;
+            }
+            Authentication authentication = toAuthentication(claims);
+            authenticationCache.put(accessToken, authentication, claims.getExpiration().getTime());
+            return authentication;
+        } catch (SecurityException | MalformedJwtException e) {
+            log.info("Invalid JWT Token", e);
+        } catch (ExpiredJwtException e) {
+            log.info("Expired JWT Token", e);
+        } catch (UnsupportedJwtException e) {
+            log.info("Unsupported JWT Token", e);
+        } catch (IllegalArgumentException e) {
+            log.info("JWT claims string is empty", e);
+        }
+        return null;
+    }
+
+    /**
+     * JIT 워밍업 (발급 시작 전 CouponWarmupScheduler 가 호출)
+     * - 합성 AccessToken 생성 + 서명 검증/파싱 + Authentication 변환 (인증 캐시, Redis 사용 안 함)
+     */
+    public void warmup(int iterations) {
+        Date expireDate = new Date(System.currentTimeMillis() + 60_000);
+        for (int i = 0; i < iterations; i++) {
+            String token = generateAccessToken("warmup-" + i, (long) i, "ROLE_USER", expireDate);
+            toAuthentication(jwtParser.parseClaimsJws(token).getBody());
+        }
+    }
+
     // Authentication은 “JWT를 Spring Security가 이해할 수 있게 변환한 로그인 정보 객체”
     public Authentication getAuthentication(String accessToken) {
         // JWT 토큰 복호화
@@ -104,27 +215,40 @@ public class JwtTokenProvider {
         if (claims.get("auth") == null) {
             throw new RuntimeException("권한 정보가 없는 토큰입니다.");
         }
+        if (isRefreshToken(claims)) {
+            throw new RuntimeException("RefreshToken 은 인증에 사용할 수 없습니다.");
+        }
+        return toAuthentication(claims);
+    }
 
-        // 클레임에서 권한 정보 가져오기
-        Collection<? extends GrantedAuthority> authorities = Arrays.stream(claims.get("auth").toString().split(","))
-                .map(SimpleGrantedAuthority::new) // SimpleGrantedAuthority 객체들의 컬렉션으로 변환
-                .toList();
+    private boolean isRefreshToken(Claims claims) {
+        return REFRESH_TYPE.equals(claims.get(TOKEN_TYPE));
+    }
 
+    private Authentication toAuthentication(Claims claims) {
+        // 클레임에서 권한 정보 가져오기
+        List<GrantedAuthority> authorities = authoritiesCache.computeIfAbsent(claims.get("auth").toString(),
+                auth -> Arrays.stream(auth.split(","))
+                        .<GrantedAuthority>map(SimpleGrantedAuthority::new) // SimpleGrantedAuthority 객체들의 컬렉션으로 변환
+                        .toList());
 
         // 애플리케이션에서 사용되는 사용자의 정보를 표현
         // UserDetails 객체를 만들어서 Authentication return
-        // UserDetails: interface, User: UserDetails를 구현한 클래스
-        UserDetails principal = new User(claims.getSubject(), "", authorities); // 파라미터: 사용자 식별자, credentials, 권한 목록
+        // UserDetails: interface, MemberPrincipal: UserDetails를 구현한 User + PK
+        // uid 클레임이 없는 이전 토큰이면 id = null (발급 시 userId 로 조회)
+        UserDetails principal = new MemberPrincipal(claims.get("uid", Long.class), claims.getSubject(), "", authorities); // 파라미터: PK, 사용자 식별자, credentials, 권한 목록
         return new UsernamePasswordAuthenticationToken(principal, "", authorities);
     }
 
+    private UserDetails principalOf(Authentication authentication) {
+        return authentication.getPrincipal() instanceof UserDetails userDetails ? userDetails : null;
+    }
+
     // JWT 토큰 복호화
     // payload = Claims
     private Claims parseClaims(String accessToken) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
+            return jwtParser
                     .parseClaimsJws(accessToken) // JWT 토큰 검증과 파싱을 모두 수행함
                     .getBody();
         } catch (ExpiredJwtException e) {
@@ -135,10 +259,7 @@ public class JwtTokenProvider {
     // 토큰 정보 검증, 이 토큰이 진짜인지만 확인
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token); //JWT 서명을 검증하고, 만료 확인하고, payload(Claims)를 추출
+            jwtParser.parseClaimsJws(token); //JWT 서명을 검증하고, 만료 확인하고, payload(Claims)를 추출
 
             return true;
         } catch (SecurityException | MalformedJwtException e) {
@@ -174,9 +295,7 @@ public class JwtTokenProvider {
     public String getUserNameFromToken(String token) {
         try {
             // 토큰 파싱해서 클레임 얻기
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
+            Claims claims = jwtParser
                     .parseClaimsJws(token)
                     .getBody();
 
@@ -0,0 +1,29 @@
+package com.example.coupon.jwt;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+
+/**
+ * Security principal + users.id (PK)
+ * - username = 로그인 userId, id = users 테이블 PK (AccessToken "uid" 클레임)
+ * - 발급 요청 시 PK 를 바로 이벤트에 담기 위해 사용 (요청/Consumer 에서 유저 조회 생략)
+ */
+@Getter
+public class MemberPrincipal extends User {
+
+    // uid 클레임이 없는 (이전에 발급된) 토큰이면 null
+    private final Long id;
+
+    public MemberPrincipal(Long id, String username, String password, Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+
+    public static Long idOf(UserDetails userDetails) {
+        return userDetails instanceof MemberPrincipal member ? member.getId() : null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.coupon.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * coupon_issue 대량 insert 전용 (JPA IDENTITY 전략은 배치 insert 불가)
+ * MySQL에서 실제 배치로 전송하려면 JDBC URL에 rewriteBatchedStatements=true 필요
+ */
+@Repository
+@RequiredArgsConstructor
+public class CouponIssueJdbcRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO coupon_issue (user_id, coupon_id, issued_at, used) VALUES (?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void batchInsert(Long couponId, List<Long> userIds, LocalDateTime issuedAt) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Timestamp issuedAtTs = Timestamp.valueOf(issuedAt);
+        jdbcTemplate.batchUpdate(INSERT_SQL, userIds, BATCH_SIZE, (ps, userId) -> {
+            ps.setLong(1, userId);
+            ps.setLong(2, couponId);
+            ps.setTimestamp(3, issuedAtTs);
+            ps.setBoolean(4, false);
+        });
+    }
+}
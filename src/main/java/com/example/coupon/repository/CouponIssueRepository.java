@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CouponIssueRepository extends JpaRepository<CouponIssue, Long> {
@@ -19,4 +21,7 @@ public interface CouponIssueRepository extends JpaRepository<CouponIssue, Long>
     
     @Query("SELECT COUNT(ci) FROM CouponIssue ci WHERE ci.coupon.id = :couponId")
     long countByCouponId(@Param("couponId") Long couponId);
+
+    @Query("SELECT ci.user.id FROM CouponIssue ci WHERE ci.coupon.id = :couponId AND ci.user.id IN :userIds")
+    List<Long> findIssuedUserIds(@Param("couponId") Long couponId, @Param("userIds") Collection<Long> userIds);
 }
@@ -4,8 +4,10 @@ import com.example.coupon.entity.CouponPolicy;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -14,4 +16,24 @@ public interface CouponPolicyRepository extends JpaRepository<CouponPolicy, Long
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT cp FROM CouponPolicy cp WHERE cp.id = :id")
     Optional<CouponPolicy> findByIdWithLock(@Param("id") Long id);
+
+    @Query("SELECT c.policy FROM Coupon c WHERE c.id = :couponId")
+    Optional<CouponPolicy> findByCouponId(@Param("couponId") Long couponId);
+
+    // 락 없이 한 번의 UPDATE로 수량 확인 + 증가 (0 이면 SOLD OUT)
+    @Modifying
+    @Query("UPDATE CouponPolicy cp SET cp.issuedQuantity = cp.issuedQuantity + 1 " +
+           "WHERE cp.id = :id AND cp.issuedQuantity < cp.totalQuantity")
+    int incrementIssuedQuantityIfAvailable(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE CouponPolicy cp SET cp.issuedQuantity = cp.issuedQuantity - 1 " +
+           "WHERE cp.id = :id AND cp.issuedQuantity > 0")
+    int decrementIssuedQuantityIfPositive(@Param("id") Long id);
+
+    // 단일 writer(파티션 소유 Consumer) 카운터 체크포인트
+    @Transactional
+    @Modifying
+    @Query("UPDATE CouponPolicy cp SET cp.issuedQuantity = :issuedQuantity WHERE cp.id = :id")
+    int updateIssuedQuantity(@Param("id") Long id, @Param("issuedQuantity") int issuedQuantity);
 }
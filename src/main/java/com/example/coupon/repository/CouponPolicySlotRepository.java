@@ -0,0 +1,44 @@
+package com.example.coupon.repository;
+
+import com.example.coupon.entity.CouponPolicySlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface CouponPolicySlotRepository extends JpaRepository<CouponPolicySlot, Long> {
+
+    long countByPolicyId(Long policyId);
+
+    // [slotNo, 남은 quota] 목록 (영속성 컨텍스트를 거치지 않는 최신 값)
+    @Query("SELECT s.slotNo, s.quota - s.issuedQuantity FROM CouponPolicySlot s WHERE s.policy.id = :policyId")
+    List<Object[]> findRemainingByPolicyId(@Param("policyId") Long policyId);
+
+    // 정책의 모든 슬롯을 slot_no 오름차순으로 잠그고 [slotNo, 남은 quota] 반환 (잠금 순서 고정 → quota 이동 간 데드락 없음)
+    @Query(value = "SELECT slot_no, quota - issued_quantity FROM coupon_policy_slot " +
+                   "WHERE policy_id = :policyId ORDER BY slot_no FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockRemainingByPolicyId(@Param("policyId") Long policyId);
+
+    @Modifying
+    @Query("UPDATE CouponPolicySlot s SET s.issuedQuantity = s.issuedQuantity + 1, s.version = s.version + 1 " +
+           "WHERE s.policy.id = :policyId AND s.slotNo = :slotNo AND s.issuedQuantity < s.quota")
+    int incrementIssuedQuantityIfAvailable(@Param("policyId") Long policyId, @Param("slotNo") int slotNo);
+
+    @Modifying
+    @Query("UPDATE CouponPolicySlot s SET s.issuedQuantity = s.issuedQuantity - 1, s.version = s.version + 1 " +
+           "WHERE s.policy.id = :policyId AND s.slotNo = :slotNo AND s.issuedQuantity > 0")
+    int decrementIssuedQuantityIfPositive(@Param("policyId") Long policyId, @Param("slotNo") int slotNo);
+
+    // 남은 quota 가 amount 이상일 때만 amount 만큼 떼어냄
+    @Modifying
+    @Query("UPDATE CouponPolicySlot s SET s.quota = s.quota - :amount, s.version = s.version + 1 " +
+           "WHERE s.policy.id = :policyId AND s.slotNo = :slotNo AND s.quota - s.issuedQuantity >= :amount")
+    int takeQuota(@Param("policyId") Long policyId, @Param("slotNo") int slotNo, @Param("amount") int amount);
+
+    @Modifying
+    @Query("UPDATE CouponPolicySlot s SET s.quota = s.quota + :amount, s.version = s.version + 1 " +
+           "WHERE s.policy.id = :policyId AND s.slotNo = :slotNo")
+    int addQuota(@Param("policyId") Long policyId, @Param("slotNo") int slotNo, @Param("amount") int amount);
+}
@@ -2,6 +2,21 @@ package com.example.coupon.repository;
 
 import com.example.coupon.entity.Coupon;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface CouponRepository extends JpaRepository<Coupon, Long> {
+    long countByPolicyId(Long policyId);
+
+    // 발급 시작이 다가오는 활성 쿠폰 (사전 워밍업 대상)
+    @Query("SELECT c FROM Coupon c JOIN FETCH c.policy p " +
+           "WHERE p.active = true AND p.startAt > :from AND p.startAt <= :to")
+    List<Coupon> findStartingBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // 발급 기간이 끝난 쿠폰 (Redis 키 만료 대상)
+    @Query("SELECT c FROM Coupon c JOIN FETCH c.policy p WHERE p.endAt > :from AND p.endAt <= :to")
+    List<Coupon> findEndedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
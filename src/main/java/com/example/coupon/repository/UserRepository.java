@@ -3,10 +3,13 @@ package com.example.coupon.repository;
 import com.example.coupon.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUserId(String userId);
     Optional<User> findByUserId(String userId);
     Optional<User> findByUsername(String username);
+    List<User> findByUserIdIn(Collection<String> userIds);
 }
@@ -0,0 +1,241 @@
+package com.example.coupon.service;
+
+import com.example.coupon.dto.CouponIssueEvent;
+import com.example.coupon.dto.CouponIssueStatus;
+import com.example.coupon.entity.CouponPolicy;
+import com.example.coupon.entity.User;
+import com.example.coupon.exception.CouponNotFoundException;
+import com.example.coupon.repository.CouponIssueJdbcRepository;
+import com.example.coupon.repository.CouponIssueRepository;
+import com.example.coupon.repository.CouponPolicyRepository;
+import com.example.coupon.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Kafka 배치 Consumer: poll 단위로 모아서 쿠폰 발급 처리
+ * - 정책(CouponPolicy)별로 묶어서 락은 배치당 한 번만 획득 (분산 슬롯 정책은 정책 row 대신 슬롯 row 를 오름차순으로)
+ * - coupon_issue 는 JDBC 배치 insert
+ * - 정책 그룹마다 별도 트랜잭션 → 한 그룹 실패가 다른 그룹을 롤백하지 않음
+ * coupon.consumer.batch-enabled=true 일 때만 기동 (단건 consume 과 배타적)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CouponIssueBatchService {
+
+    private final CouponIssueService couponIssueService;
+    private final CouponPolicySlotService couponPolicySlotService;
+    private final CouponPolicyRepository couponPolicyRepository;
+    private final CouponMetadataCache couponMetadataCache;
+    private final CouponIssueRepository couponIssueRepository;
+    private final CouponIssueJdbcRepository couponIssueJdbcRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final IssueResultStore issueResultStore;
+    private final GateStockReleaser gateStockReleaser;
+
+    @KafkaListener(
+            id = "coupon-issue-batch",
+            // id 가 그룹이 되지 않도록 단건 Consumer 와 같은 그룹을 명시 (모드를 바꿔도 커밋된 offset 에서 이어서 소비)
+            groupId = "${spring.kafka.consumer.group-id:coupon-issue-consumer}",
+            topics = "coupon-issue",
+            concurrency = "10",
+            batch = "true",
+            autoStartup = "#{${coupon.consumer.kafka-enabled:true} && ${coupon.consumer.batch-enabled:false}}",
+            properties = {
+                    "value.deserializer=org.springframework.kafka.support.serializer.ErrorHandlingDeserializer",
+                    "spring.deserializer.value.delegate.class=com.example.coupon.dto.CouponIssueEventDeserializer"
+            }
+    )
+    public void consumeBatch(List<ConsumerRecord<String, CouponIssueEvent>> records) {
+        log.info("Processing coupon issue batch. size: {}", records.size());
+
+        List<PendingIssue> pendings = resolve(records);
+
+        // 정책별 그룹핑 (레코드 순서 유지)
+        Map<Long, List<PendingIssue>> byPolicy = pendings.stream()
+                .collect(Collectors.groupingBy(PendingIssue::policyId,
+                        LinkedHashMap::new, Collectors.toList()));
+
+        byPolicy.forEach((policyId, group) -> {
+            Map<Long, Integer> issuedByCoupon;
+            try {
+                issuedByCoupon = transactionTemplate.execute(status -> issueGroup(policyId, group));
+            } catch (DataIntegrityViolationException e) {
+                // 다른 Consumer와 경합해 중복 키가 발생한 경우 → 해당 그룹만 단건 처리로 재시도
+                log.warn("Batch insert conflicted, falling back to per-record issue. policyId: {}, size: {}",
+                        policyId, group.size());
+                processOneByOne(group);
+                return;
+            }
+
+            // 커밋 이후 Redis count 반영 (쿠폰당 한 번)
+            if (issuedByCoupon != null) {
+                issuedByCoupon.forEach((couponId, issued) ->
+                        couponIssueService.addIssuedCount(couponId, issued));
+            }
+        });
+    }
+
+    /**
+     * 쿠폰은 메타데이터 캐시, 유저는 이벤트의 PK 사용 (PK 가 없는 이전 이벤트만 한 번에 조회)
+     * 존재하지 않는 쿠폰/유저는 재시도해도 성공할 수 없으므로 로그 후 제외 (게이트 재고 반납 + 중복 체크 해제)
+     */
+    private List<PendingIssue> resolve(List<ConsumerRecord<String, CouponIssueEvent>> records) {
+        Set<String> usernames = new HashSet<>();
+        for (ConsumerRecord<String, CouponIssueEvent> record : records) {
+            CouponIssueEvent event = record.value();
+            if (event != null && event.getUserId() == null) {
+                usernames.add(event.getUsername());
+            }
+        }
+
+        Map<String, Long> userIds = usernames.isEmpty() ? Map.of() : userRepository.findByUserIdIn(usernames).stream()
+                .collect(Collectors.toMap(User::getUserId, User::getId));
+
+        List<PendingIssue> pendings = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            CouponIssueEvent event = records.get(i).value();
+            if (event == null) {
+                continue;
+            }
+            Long policyId = policyIdOf(event);
+            Long userId = event.getUserId() != null ? event.getUserId() : userIds.get(event.getUsername());
+            if (policyId == null || userId == null) {
+                log.warn("Skipping coupon issue event. couponId: {}, username: {}, couponFound: {}, userFound: {}",
+                        event.getCouponId(), event.getUsername(), policyId != null, userId != null);
+                gateStockReleaser.releaseAfterCommit(event, CouponIssueStatus.FAILED);
+                continue;
+            }
+            pendings.add(new PendingIssue(i, records.get(i).partition(), event, policyId, userId));
+        }
+        return pendings;
+    }
+
+    private Long policyIdOf(CouponIssueEvent event) {
+        if (event.getPolicyId() != null) {
+            return event.getPolicyId();
+        }
+        try {
+            return couponMetadataCache.get(event.getCouponId()).policyId();
+        } catch (CouponNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 정책 하나에 대한 배치 발급 (트랜잭션 내부)
+     * @return 쿠폰별 실제 발급 수
+     */
+    private Map<Long, Integer> issueGroup(Long policyId, List<PendingIssue> group) {
+        // 분산 슬롯 정책은 슬롯 row 로만 수량을 맞추므로 정책 row 락 없이 조회 (stripeCount 는 생성 후 바뀌지 않음)
+        boolean striped = couponMetadataCache.get(group.get(0).event().getCouponId()).striped();
+        CouponPolicy policy = (striped
+                ? couponPolicyRepository.findById(policyId)
+                : couponPolicyRepository.findByIdWithLock(policyId))
+                .orElseThrow(() -> new RuntimeException("CouponPolicy not found: " + policyId));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!policy.isIssuable(now)) {
+            log.warn("Coupon batch not issuable by policy. policyId: {}, size: {}, now: {}, startAt: {}, endAt: {}, active: {}",
+                    policyId, group.size(), now, policy.getStartAt(), policy.getEndAt(), policy.isActive());
+            group.forEach(p -> gateStockReleaser.releaseAfterCommit(p.event(), CouponIssueStatus.NOT_ISSUABLE));
+            return Map.of();
+        }
+
+        Map<Long, List<PendingIssue>> byCoupon = group.stream()
+                .collect(Collectors.groupingBy(p -> p.event().getCouponId(), LinkedHashMap::new, Collectors.toList()));
+
+        // 여러 유저가 서로 다른 슬롯을 갱신하므로 슬롯 전체를 먼저 오름차순으로 잠금
+        if (policy.isStriped()) {
+            couponPolicySlotService.lockSlots(policy);
+        }
+
+        int remaining = policy.isStriped() ? 0 : policy.getRemainingQuantity();
+        Map<Long, Integer> issuedByCoupon = new HashMap<>();
+
+        for (Map.Entry<Long, List<PendingIssue>> entry : byCoupon.entrySet()) {
+            Long couponId = entry.getKey();
+            List<PendingIssue> candidates = entry.getValue();
+
+            // 이미 발급된 유저 + 배치 내 중복 요청 제거
+            Set<Long> seen = new HashSet<>(couponIssueRepository.findIssuedUserIds(couponId,
+                    candidates.stream().map(PendingIssue::userId).toList()));
+            List<Long> admitted = new ArrayList<>();
+            for (PendingIssue candidate : candidates) {
+                Long userPk = candidate.userId();
+                if (!seen.add(userPk)) {
+                    log.warn("Coupon already issued. couponId: {}, userId: {}", couponId, userPk);
+                    recordAfterCommit(candidate, CouponIssueStatus.DUPLICATE);
+                    continue;
+                }
+                boolean available = policy.isStriped()
+                        ? couponPolicySlotService.tryIssue(policy, candidate.event().getUsername())
+                        : admitted.size() < remaining;
+                if (!available) {
+                    log.warn("Coupon sold out. couponId: {}, username: {}", couponId, candidate.event().getUsername());
+                    recordAfterCommit(candidate, CouponIssueStatus.SOLD_OUT);
+                    continue;
+                }
+                admitted.add(userPk);
+                recordAfterCommit(candidate, CouponIssueStatus.ISSUED);
+            }
+
+            couponIssueJdbcRepository.batchInsert(couponId, admitted, now);
+            if (!policy.isStriped()) {
+                remaining -= admitted.size();
+            }
+            issuedByCoupon.put(couponId, admitted.size());
+        }
+
+        int issued = issuedByCoupon.values().stream().mapToInt(Integer::intValue).sum();
+        if (!policy.isStriped()) {
+            policy.incrementIssuedQuantity(issued);
+            couponPolicyRepository.save(policy);
+        }
+
+        log.info("Coupon batch issued. policyId: {}, requested: {}, issued: {}, issuedQuantity: {}",
+                policyId, group.size(), issued, policy.getIssuedQuantity());
+        return issuedByCoupon;
+    }
+
+    // 그룹 트랜잭션이 롤백되면(단건 fallback) 단건 처리에서 다시 기록됨
+    private void recordAfterCommit(PendingIssue pending, CouponIssueStatus status) {
+        issueResultStore.recordAfterCommit(pending.event().getCouponId(), pending.event().getUsername(), status);
+    }
+
+    /**
+     * 단건 처리 fallback
+     * 비즈니스 거절(중복/매진)은 건너뛰고, 그 외 실패는 해당 레코드 위치를 알려 이후 레코드만 재전달되게 함
+     */
+    private void processOneByOne(List<PendingIssue> group) {
+        for (PendingIssue pending : group) {
+            try {
+                // 비즈니스 거절(중복/매진)은 consume 안에서 롤백 후 정상 반환
+                couponIssueService.consume(pending.event(), pending.partition());
+            } catch (RuntimeException e) {
+                throw new BatchListenerFailedException("Failed to issue coupon in batch", e, pending.index());
+            }
+        }
+    }
+
+    private record PendingIssue(int index, int partition, CouponIssueEvent event, Long policyId, Long userId) {
+    }
+}
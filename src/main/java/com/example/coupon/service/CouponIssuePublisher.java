@@ -0,0 +1,157 @@
+package com.example.coupon.service;
+
+import com.example.coupon.dto.CouponIssueEvent;
+import com.example.coupon.dto.CouponIssueStatus;
+import com.example.coupon.exception.CouponIssueUnavailableException;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * coupon-issue 발행 (게이트에서 재고를 선점한 뒤 호출)
+ * - send 는 비동기, 완료 콜백에서 실패를 처리 (max.block.ms 로 메타데이터/버퍼 대기 상한 - kafka-producer.properties)
+ * - 값은 CouponIssueEventSerializer 바이너리 (KafkaProducerConfig.couponIssueKafkaTemplate)
+ * - 실패한 이벤트는 크기 제한 재시도 버퍼에 넣고 스케줄러가 재발행
+ * - 재시도 한도 초과 / 버퍼 가득 참 / 종료 시 남은 이벤트는 게이트 재고를 반납 (재고 유실 방지)
+ * 버퍼는 노드 메모리이므로 프로세스가 비정상 종료되면 그 안의 재고는 반납되지 않는다.
+ */
+@Slf4j
+@Component
+public class CouponIssuePublisher {
+
+    public static final String TOPIC = "coupon-issue";
+
+    private final KafkaTemplate<String, CouponIssueEvent> kafkaTemplate;
+    private final GateStockReleaser gateStockReleaser;
+    private final IssueMetrics issueMetrics;
+    private final BlockingQueue<Pending> retryBuffer;
+    // 완료 콜백에서 실패한 건 (in-flight 수로 제한됨)
+    private final Queue<Pending> asyncFailures = new ConcurrentLinkedQueue<>();
+    private final int maxAttempts;
+
+    public CouponIssuePublisher(KafkaTemplate<String, CouponIssueEvent> kafkaTemplate,
+                                GateStockReleaser gateStockReleaser,
+                                IssueMetrics issueMetrics,
+                                @Value("${coupon.publisher.retry-buffer-size:10000}") int retryBufferSize,
+                                @Value("${coupon.publisher.max-attempts:5}") int maxAttempts) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.gateStockReleaser = gateStockReleaser;
+        this.issueMetrics = issueMetrics;
+        this.retryBuffer = new ArrayBlockingQueue<>(retryBufferSize);
+        this.maxAttempts = maxAttempts;
+        issueMetrics.retryBuffer(retryBuffer);
+    }
+
+    /**
+     * 발행 요청 (요청 스레드)
+     * send 자체가 즉시 실패하고 재시도 버퍼도 가득 차 있으면 재고를 반납하고 503
+     */
+    public void publish(CouponIssueEvent event) {
+        Pending pending = new Pending(event, 1);
+        if (!send(pending)) {
+            if (!retryBuffer.offer(pending)) {
+                compensate(pending, "retry buffer full");
+                throw new CouponIssueUnavailableException();
+            }
+            issueMetrics.publishRetried();
+        }
+    }
+
+    /**
+     * 재시도 버퍼 재발행 (한 번에 버퍼 크기만큼만, send 가 즉시 실패하면 이번 주기는 중단)
+     * 비동기 실패 건도 여기서 재시도 버퍼로 옮김 (Producer I/O 스레드에서는 Redis 반납을 하지 않도록)
+     */
+    @Scheduled(fixedDelayString = "${coupon.publisher.retry-interval-ms:500}")
+    public void retry() {
+        Pending failed;
+        while ((failed = asyncFailures.poll()) != null) {
+            requeue(failed);
+        }
+
+        int size = retryBuffer.size();
+        for (int i = 0; i < size; i++) {
+            Pending pending = retryBuffer.poll();
+            if (pending == null) {
+                return;
+            }
+            Pending next = pending.nextAttempt();
+            if (!send(next)) {
+                requeue(next);
+                return;
+            }
+        }
+    }
+
+    // 종료 시 발행하지 못한 이벤트의 재고 반납
+    @PreDestroy
+    public void releaseRemaining() {
+        Pending pending;
+        while ((pending = asyncFailures.poll()) != null) {
+            compensate(pending, "shutdown");
+        }
+        while ((pending = retryBuffer.poll()) != null) {
+            compensate(pending, "shutdown");
+        }
+    }
+
+    /**
+     * @return false 면 send 호출 자체가 실패 (메타데이터/버퍼 대기 초과 등)
+     */
+    private boolean send(Pending pending) {
+        CouponIssueEvent event = pending.event();
+        CompletableFuture<?> future;
+        Timer.Sample sample = issueMetrics.start();
+        try {
+            // key = couponId 로 쿠폰별 파티션 고정 (ADR-007)
+            future = kafkaTemplate.send(TOPIC, String.valueOf(event.getCouponId()), event);
+        } catch (RuntimeException e) {
+            log.warn("Coupon issue send failed immediately. couponId: {}, username: {}, attempt: {}, reason: {}",
+                    event.getCouponId(), event.getUsername(), pending.attempt(), e.toString());
+            return false;
+        }
+        issueMetrics.publish(sample, future);
+        future.whenComplete((result, ex) -> {
+            if (ex != null) {
+                log.warn("Coupon issue send failed. couponId: {}, username: {}, attempt: {}, reason: {}",
+                        event.getCouponId(), event.getUsername(), pending.attempt(), ex.toString());
+                asyncFailures.add(pending);
+            }
+        });
+        return true;
+    }
+
+    private void requeue(Pending pending) {
+        if (pending.attempt() >= maxAttempts) {
+            compensate(pending, "max attempts exceeded");
+        } else if (!retryBuffer.offer(pending)) {
+            compensate(pending, "retry buffer full");
+        } else {
+            issueMetrics.publishRetried();
+        }
+    }
+
+    // 게이트 재고 반납 + 중복 체크 해제 → 유저는 다시 요청 가능 (Consumer 쪽 실패와 같은 경로, 요청당 한 번)
+    private void compensate(Pending pending, String reason) {
+        CouponIssueEvent event = pending.event();
+        log.error("Coupon issue event dropped, releasing stock. couponId: {}, username: {}, attempt: {}, reason: {}",
+                event.getCouponId(), event.getUsername(), pending.attempt(), reason);
+        issueMetrics.publishCompensated();
+        gateStockReleaser.releaseAfterCommit(event, CouponIssueStatus.FAILED);
+    }
+
+    private record Pending(CouponIssueEvent event, int attempt) {
+        private Pending nextAttempt() {
+            return new Pending(event, attempt + 1);
+        }
+    }
+}
@@ -1,112 +1,431 @@
 package com.example.coupon.service;
 
 import com.example.coupon.dto.CouponIssueEvent;
+import com.example.coupon.dto.CouponIssueStatus;
 import com.example.coupon.entity.Coupon;
 import com.example.coupon.entity.CouponIssue;
 import com.example.coupon.entity.CouponPolicy;
 import com.example.coupon.entity.User;
+import com.example.coupon.exception.CouponAlreadyIssuedException;
+import com.example.coupon.exception.CouponNotFoundException;
 import com.example.coupon.exception.CouponSoldOutException;
 import com.example.coupon.repository.CouponIssueRepository;
 import com.example.coupon.repository.CouponPolicyRepository;
 import com.example.coupon.repository.CouponRepository;
 import com.example.coupon.repository.UserRepository;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.BackOff;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class CouponIssueService {
+public class CouponIssueService implements ConsumerSeekAware {
+
+    // PARTITION_OWNER: 재시도 토픽에서 소유 파티션으로 되돌려 보낸 횟수
+    static final String OWNER_REDISPATCH_HEADER = "coupon-owner-redispatch";
 
     private final CouponPolicyRepository couponPolicyRepository;
     private final CouponRepository couponRepository;
     private final CouponIssueRepository couponIssueRepository;
     private final UserRepository userRepository;
     private final StringRedisTemplate redisTemplate;
+    private final RedisScript<Long> couponIssuedCountScript;
+    private final SoldOutCache soldOutCache;
+    private final StockGateRegistry stockGateRegistry;
+    private final IssueLockStats issueLockStats;
+    private final CouponPolicySlotService couponPolicySlotService;
+    private final OwnedIssueCounters ownedIssueCounters;
+    private final IssueMetrics issueMetrics;
+    private final CouponMetadataCache couponMetadataCache;
+    private final IssueResultStore issueResultStore;
+    private final GateStockReleaser gateStockReleaser;
+    private final KafkaTemplate<String, CouponIssueEvent> couponIssueKafkaTemplate;
+
+    @Value("${coupon.consumer.issue-strategy:PESSIMISTIC}")
+    private IssueLockStrategy issueStrategy;
+
+    // 소유 파티션으로 되돌려 보내는 상한 (넘으면 DLT 와 같이 실패 처리)
+    @Value("${coupon.consumer.retry.attempts:4}")
+    private int maxOwnerRedispatches;
 
     /**
      * Kafka Consumer: 쿠폰 발급 처리
-     * 비관적 락으로 정합성 보장
+     * 발급 전략(coupon.consumer.issue-strategy)에 따라 비관적 락 또는 조건부 UPDATE로 정합성 보장
      * Consumer 개수 제한으로 커넥션 풀 보호
+     * 이벤트는 바이너리(CouponIssueEventDeserializer), 유저/쿠폰은 이벤트의 PK 로 참조만 사용
+     * 오류 처리:
+     * - 비즈니스 거절(매진/중복)은 재시도해도 성공할 수 없으므로 롤백 후 바로 ack
+     * - 그 외 실패(DB/Redis 일시 장애 등)는 지연 재시도 토픽(coupon-issue-retry-N)으로 넘겨 파티션을 막지 않음
+     * - 재시도 소진 / 역직렬화 실패 / 없는 쿠폰은 coupon-issue-dlt
+     * - PARTITION_OWNER 는 재시도 토픽 이벤트를 소유 파티션으로 되돌려 보내 단일 writer 를 유지
+     * READ COMMITTED: 0건 UPDATE 가 row 락을 남기지 않음 (분산 슬롯 quota 이동 전 잠금 순서 유지, CouponPolicySlotService)
      */
-    @KafkaListener(topics = "coupon-issue", concurrency = "10")
-    @Transactional
-    public void consume(CouponIssueEvent event) {
-        log.info("Processing coupon issue event. couponId: {}, username: {}", 
-            event.getCouponId(), event.getUsername());
-
+    @RetryableTopic(
+            attempts = "${coupon.consumer.retry.attempts:4}",
+            backOff = @BackOff(
+                    delayString = "${coupon.consumer.retry.delay-ms:1000}",
+                    multiplierString = "${coupon.consumer.retry.multiplier:2.0}",
+                    maxDelayString = "${coupon.consumer.retry.max-delay-ms:10000}"
+            ),
+            kafkaTemplate = "couponIssueRetryKafkaTemplate",
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            autoCreateTopics = "${coupon.consumer.kafka-enabled:true}",
+            dltStrategy = DltStrategy.FAIL_ON_ERROR,
+            exclude = CouponNotFoundException.class
+    )
+    @KafkaListener(
+            topics = "coupon-issue",
+            concurrency = "10",
+            autoStartup = "#{${coupon.consumer.kafka-enabled:true} && !${coupon.consumer.batch-enabled:false}}",
+            properties = {
+                    "value.deserializer=org.springframework.kafka.support.serializer.ErrorHandlingDeserializer",
+                    "spring.deserializer.value.delegate.class=com.example.coupon.dto.CouponIssueEventDeserializer"
+            }
+    )
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public void consume(CouponIssueEvent event,
+                        @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                        @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                        @Header(name = OWNER_REDISPATCH_HEADER, required = false) byte[] ownerRedispatches) {
+        // 재시도 토픽 파티션은 소유 카운터가 없으므로 직접 발급하지 않고 쿠폰의 소유 파티션으로 되돌려 보냄
+        // (여기서 발급하면 소유 Consumer 카운터가 모르는 row 가 생겨 마지막 수량을 양쪽이 함께 발급할 수 있음)
+        if (issueStrategy == IssueLockStrategy.PARTITION_OWNER && !CouponIssuePublisher.TOPIC.equals(topic)) {
+            redispatchToOwner(event, ownerRedispatches);
+            return;
+        }
         try {
-            // 쿠폰 조회
-            Coupon coupon = couponRepository.findById(event.getCouponId())
-                .orElseThrow(() -> new RuntimeException("Coupon not found: " + event.getCouponId()));
-
-            // 비관적 락으로 CouponPolicy 조회
-            CouponPolicy policy = couponPolicyRepository.findByIdWithLock(coupon.getPolicy().getId())
-                .orElseThrow(() -> new RuntimeException("CouponPolicy not found: " + coupon.getPolicy().getId()));
-
-            // 발급 기간 및 활성화 여부 확인
-            LocalDateTime now = LocalDateTime.now();
-            if (!policy.isIssuable(now)) {
-                log.warn("Coupon not issuable by policy. couponId: {}, now: {}, startAt: {}, endAt: {}, active: {}",
-                    event.getCouponId(), now, policy.getStartAt(), policy.getEndAt(), policy.isActive());
-                // 비재시도성 비즈니스 케이스 → 조용히 소비 후 종료
-                return;
+            // 발급 기간 밖(NOT_ISSUABLE)은 issue 안에서 커밋 이후 결과 기록 + 재고 반납
+            if (issue(event, issueStrategy, partition)) {
+                issueResultStore.recordAfterCommit(event.getCouponId(), event.getUsername(), CouponIssueStatus.ISSUED);
             }
+        } catch (CouponSoldOutException | CouponAlreadyIssuedException e) {
+            // 예외를 던지지 않고 롤백만 표시 → 재전달/재시도 없이 offset 커밋
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            log.warn("Coupon issue rejected, acknowledged without retry. couponId: {}, username: {}, reason: {}",
+                event.getCouponId(), event.getUsername(), e.getMessage());
+            issueResultStore.record(event.getCouponId(), event.getUsername(),
+                e instanceof CouponSoldOutException ? CouponIssueStatus.SOLD_OUT : CouponIssueStatus.DUPLICATE);
+        }
+    }
 
-            // 발급 수량 확인
-            if (!policy.canIssue()) {
-                log.warn("Coupon sold out. couponId: {}, issuedQuantity: {}, totalQuantity: {}", 
-                    event.getCouponId(), policy.getIssuedQuantity(), policy.getTotalQuantity());
-                throw new CouponSoldOutException();
-            }
+    // coupon-issue 토픽 외부 호출용 (배치 fallback, inmemory 큐)
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public void consume(CouponIssueEvent event, int partition) {
+        consume(event, CouponIssuePublisher.TOPIC, partition, null);
+    }
 
-            // 사용자 조회 (principal = userId)
-            User user = userRepository.findByUserId(event.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found: " + event.getUsername()));
+    /**
+     * PARTITION_OWNER 재시도: 같은 key(couponId)로 coupon-issue 에 다시 발행 → 소유 Consumer 가 카운터로 처리
+     * 소유 Consumer 에서 다시 실패하면 재시도 토픽을 거쳐 돌아오므로, 되돌린 횟수가 재시도 횟수를 넘으면 DLT 와 같이 실패 처리
+     * 발행이 실패하면 예외 → 다음 재시도 토픽 (소진되면 DLT)
+     */
+    private void redispatchToOwner(CouponIssueEvent event, byte[] ownerRedispatches) {
+        int redispatched = ownerRedispatches == null ? 0
+            : Integer.parseInt(new String(ownerRedispatches, StandardCharsets.UTF_8));
+        if (redispatched >= maxOwnerRedispatches) {
+            log.error("Coupon issue event exhausted owner redispatches. couponId: {}, username: {}, redispatched: {}",
+                event.getCouponId(), event.getUsername(), redispatched);
+            gateStockReleaser.releaseAfterCommit(event, CouponIssueStatus.FAILED);
+            return;
+        }
+        ProducerRecord<String, CouponIssueEvent> record =
+            new ProducerRecord<>(CouponIssuePublisher.TOPIC, String.valueOf(event.getCouponId()), event);
+        record.headers().add(OWNER_REDISPATCH_HEADER,
+            String.valueOf(redispatched + 1).getBytes(StandardCharsets.UTF_8));
+        couponIssueKafkaTemplate.send(record).join();
+        log.info("Coupon issue retry redispatched to owner partition. couponId: {}, username: {}, redispatched: {}",
+            event.getCouponId(), event.getUsername(), redispatched + 1);
+    }
 
-            // 중복 발급 확인
-            couponIssueRepository.findByUserIdAndCouponId(user.getId(), event.getCouponId())
-                .ifPresent(ci -> {
-                    log.warn("Coupon already issued. couponId: {}, userId: {}", 
-                        event.getCouponId(), user.getId());
-                    throw new RuntimeException("Coupon already issued");
-                });
+    /**
+     * 재시도를 모두 소진했거나 재시도 불가로 DLT 에 도착한 이벤트
+     * 발급되지 않았으므로 게이트 재고를 반납 (DLT 재처리 시에도 Consumer 의 수량 확인이 최종 판정)
+     * 같은 요청이 이미 실패로 기록돼 반납됐으면 다시 반납하지 않음 (GateStockReleaser)
+     */
+    @DltHandler
+    public void handleDlt(CouponIssueEvent event,
+                          @Header(name = KafkaHeaders.EXCEPTION_MESSAGE, required = false) String reason) {
+        log.error("Coupon issue event dead-lettered. couponId: {}, username: {}, reason: {}",
+            event.getCouponId(), event.getUsername(), reason);
+        gateStockReleaser.releaseAfterCommit(event, CouponIssueStatus.FAILED);
+    }
 
-            // 발급 수량 증가
-            policy.incrementIssuedQuantity();
-            couponPolicyRepository.save(policy);
+    // 리밸런스로 파티션을 잃으면 단일 writer 카운터 폐기 (다시 할당되면 DB 에서 재로드)
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        ownedIssueCounters.revoke(partitions);
+    }
 
-            // CouponIssue 생성 및 저장
-            CouponIssue couponIssue = new CouponIssue(user, coupon, LocalDateTime.now());
-            couponIssueRepository.save(couponIssue);
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        ownedIssueCounters.revoke(assignments.keySet());
+    }
 
-            // 실제 발급 성공 시 Redis count 증가
-            Long count = redisTemplate.opsForValue()
-                .increment("coupon:" + event.getCouponId() + ":count");
+    /**
+     * 지정한 전략으로 쿠폰 발급 (벤치마크에서 전략별 비교용으로도 사용)
+     * PARTITION_OWNER 는 쿠폰별 단일 writer(소유 파티션)가 전제이므로 파티션을 지정하는 issue 로만 호출
+     * @throws IllegalArgumentException PARTITION_OWNER 이면
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public void issue(CouponIssueEvent event, IssueLockStrategy strategy) {
+        issue(event, strategy, -1);
+    }
+
+    /**
+     * @return false 면 발급 기간 밖 (조용히 소비)
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public boolean issue(CouponIssueEvent event, IssueLockStrategy strategy, int partition) {
+        // 소유 파티션 없이 여러 스레드가 같은 카운터를 쓰면 갱신이 유실되어 초과 발급/오판이 생긴다
+        if (strategy == IssueLockStrategy.PARTITION_OWNER && partition < 0) {
+            throw new IllegalArgumentException("PARTITION_OWNER requires an owned coupon-issue partition");
+        }
+        log.info("Processing coupon issue event. couponId: {}, username: {}, strategy: {}",
+            event.getCouponId(), event.getUsername(), strategy);
+
+        Timer.Sample sample = issueMetrics.start();
+        String outcome = IssueMetrics.ERROR;
+        try {
+            // 쿠폰은 게이트에서 존재를 확인했으므로 참조만 사용 (정책 id 는 이벤트 값, 없으면 메타데이터 캐시)
+            Coupon coupon = couponRepository.getReferenceById(event.getCouponId());
+            Long policyId = event.getPolicyId() != null
+                ? event.getPolicyId()
+                : couponMetadataCache.get(event.getCouponId()).policyId();
 
-            log.info("Coupon issued successfully. couponId: {}, username: {}, count: {}", 
-                event.getCouponId(), event.getUsername(), count);
+            boolean issued;
+            if (strategy == IssueLockStrategy.PARTITION_OWNER) {
+                OwnedIssueCounters.Counter counter = ownedIssueCounters.get(coupon.getId(), partition);
+                issued = counter != null
+                    ? issueAsPartitionOwner(event, coupon, counter)
+                    : issueWithConditionalUpdate(event, coupon, policyId);
+            } else if (strategy == IssueLockStrategy.CONDITIONAL_UPDATE) {
+                issued = issueWithConditionalUpdate(event, coupon, policyId);
+            } else {
+                issued = issueWithPessimisticLock(event, coupon, policyId);
+            }
+            outcome = issued ? IssueMetrics.ISSUED : IssueMetrics.NOT_ISSUABLE;
+            if (!issued) {
+                gateStockReleaser.releaseAfterCommit(event, CouponIssueStatus.NOT_ISSUABLE);
+            }
+            return issued;
 
         } catch (CouponSoldOutException e) {
+            outcome = IssueMetrics.SOLD_OUT;
             log.error("Failed to issue coupon - sold out. couponId: {}", event.getCouponId());
             throw e;
         } catch (Exception e) {
+            outcome = IssueMetrics.outcomeOf(e);
             log.error("Failed to issue coupon. couponId: {}, username: {}", 
                 event.getCouponId(), event.getUsername(), e);
             throw e;
+        } finally {
+            issueMetrics.consume(sample, strategy, outcome);
         }
     }
 
+    /**
+     * 비관적 락 (SELECT ... FOR UPDATE) 기반 발급
+     * 락은 정책 조회 시점부터 커밋까지 유지됨 (분산 슬롯 정책은 슬롯 row 락만)
+     */
+    private boolean issueWithPessimisticLock(CouponIssueEvent event, Coupon coupon, Long policyId) {
+        // 비관적 락으로 CouponPolicy 조회
+        // 분산 슬롯 정책은 슬롯 row 로만 수량을 맞추므로 정책 row 락 없이 조회 (stripeCount 는 생성 후 바뀌지 않음)
+        boolean striped = couponMetadataCache.get(event.getCouponId()).striped();
+        CouponPolicy policy = (striped
+                ? couponPolicyRepository.findById(policyId)
+                : issueMetrics.lockWait().record(() -> couponPolicyRepository.findByIdWithLock(policyId)))
+            .orElseThrow(() -> new RuntimeException("CouponPolicy not found: " + policyId));
+        issueLockStats.lockAcquired(IssueLockStrategy.PESSIMISTIC);
+
+        // 발급 기간 및 활성화 여부 확인
+        LocalDateTime now = LocalDateTime.now();
+        if (!policy.isIssuable(now)) {
+            log.warn("Coupon not issuable by policy. couponId: {}, now: {}, startAt: {}, endAt: {}, active: {}",
+                event.getCouponId(), now, policy.getStartAt(), policy.getEndAt(), policy.isActive());
+            // 비재시도성 비즈니스 케이스 → 조용히 소비 후 종료
+            return false;
+        }
+
+        // 발급 수량 확인 (분산 슬롯 정책은 슬롯 차감 시점에 확인)
+        if (!policy.isStriped() && !policy.canIssue()) {
+            log.warn("Coupon sold out. couponId: {}, issuedQuantity: {}, totalQuantity: {}", 
+                event.getCouponId(), policy.getIssuedQuantity(), policy.getTotalQuantity());
+            throw new CouponSoldOutException();
+        }
+
+        User user = userOf(event);
+
+        // 중복 발급 확인
+        couponIssueRepository.findByUserIdAndCouponId(user.getId(), event.getCouponId())
+            .ifPresent(ci -> {
+                log.warn("Coupon already issued. couponId: {}, userId: {}", 
+                    event.getCouponId(), user.getId());
+                throw new CouponAlreadyIssuedException();
+            });
+
+        // 발급 수량 증가
+        if (policy.isStriped()) {
+            if (!couponPolicySlotService.tryIssue(policy, event.getUsername())) {
+                log.warn("Coupon sold out. couponId: {}, policyId: {} (all slots exhausted)",
+                    event.getCouponId(), policy.getId());
+                throw new CouponSoldOutException();
+            }
+        } else {
+            policy.incrementIssuedQuantity();
+        }
+
+        // 발급 수량 + CouponIssue 저장
+        // (분산 슬롯 정책은 정책 row 락으로 직렬화되지 않으므로 동시 중복 요청은 unique 제약조건으로 감지)
+        CouponIssue couponIssue = new CouponIssue(user, coupon, LocalDateTime.now());
+        try {
+            issueMetrics.dbWrite().record(() -> {
+                if (!policy.isStriped()) {
+                    couponPolicyRepository.save(policy);
+                }
+                couponIssueRepository.saveAndFlush(couponIssue);
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Coupon already issued. couponId: {}, userId: {}", event.getCouponId(), user.getId());
+            throw new CouponAlreadyIssuedException();
+        }
+
+        increaseIssuedCount(event);
+        return true;
+    }
+
+    /**
+     * 조건부 UPDATE 기반 발급 (명시적 락 없음)
+     * - coupon_issue 를 먼저 insert → 중복은 unique 제약조건으로 감지 (정책 row 락 획득 전)
+     * - 마지막에 UPDATE ... WHERE issued_quantity < total_quantity 로 수량 증가
+     *   → row 락은 UPDATE 부터 커밋까지만 유지됨
+     * - 0건 갱신이면 SOLD OUT → 롤백으로 insert 도 취소
+     */
+    private boolean issueWithConditionalUpdate(CouponIssueEvent event, Coupon coupon, Long policyId) {
+        // 락 없이 정책 조회 (기간/활성화 여부는 발급 도중 바뀌지 않는 값)
+        CouponPolicy policy = couponPolicyRepository.findById(policyId)
+            .orElseThrow(() -> new RuntimeException("CouponPolicy not found: " + policyId));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!policy.isIssuable(now)) {
+            log.warn("Coupon not issuable by policy. couponId: {}, now: {}, startAt: {}, endAt: {}, active: {}",
+                event.getCouponId(), now, policy.getStartAt(), policy.getEndAt(), policy.isActive());
+            return false;
+        }
+
+        User user = userOf(event);
+
+        // CouponIssue 저장 (중복이면 unique 제약조건 위반)
+        try {
+            issueMetrics.dbWrite().record(() -> couponIssueRepository.saveAndFlush(new CouponIssue(user, coupon, now)));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Coupon already issued. couponId: {}, userId: {}", event.getCouponId(), user.getId());
+            throw new CouponAlreadyIssuedException();
+        }
+
+        // 발급 수량 조건부 증가 (분산 슬롯 정책은 슬롯 row 만 갱신)
+        boolean issued = issueMetrics.lockWait().record(() -> policy.isStriped()
+            ? couponPolicySlotService.tryIssue(policy, event.getUsername())
+            : couponPolicyRepository.incrementIssuedQuantityIfAvailable(policyId) == 1);
+        if (!issued) {
+            log.warn("Coupon sold out. couponId: {}, policyId: {}", event.getCouponId(), policyId);
+            throw new CouponSoldOutException();
+        }
+        issueLockStats.lockAcquired(IssueLockStrategy.CONDITIONAL_UPDATE);
+
+        increaseIssuedCount(event);
+        return true;
+    }
+
+    /**
+     * 파티션 소유 Consumer 의 단일 writer 발급 (row 락 없음)
+     * - 같은 쿠폰 이벤트는 이 스레드만 처리하므로 메모리 카운터로 수량 판단
+     * - coupon_issue 는 append-only insert, 정책 수량은 주기적 체크포인트로만 갱신
+     */
+    private boolean issueAsPartitionOwner(CouponIssueEvent event, Coupon coupon, OwnedIssueCounters.Counter counter) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!counter.isIssuable(now)) {
+            log.warn("Coupon not issuable by policy. couponId: {}, now: {}", event.getCouponId(), now);
+            return false;
+        }
+        if (!counter.canIssue()) {
+            log.warn("Coupon sold out. couponId: {}, issued: {}, totalQuantity: {}",
+                event.getCouponId(), counter.getIssued(), counter.getTotalQuantity());
+            throw new CouponSoldOutException();
+        }
+
+        // row 락은 없지만 전략 간 비교를 위해 insert 부터 커밋까지를 같은 지표로 기록
+        issueLockStats.lockAcquired(IssueLockStrategy.PARTITION_OWNER);
+        User user = userOf(event);
+
+        // CouponIssue 저장 (중복이면 unique 제약조건 위반)
+        try {
+            couponIssueRepository.saveAndFlush(new CouponIssue(user, coupon, now));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Coupon already issued. couponId: {}, userId: {}", event.getCouponId(), user.getId());
+            throw new CouponAlreadyIssuedException();
+        }
+        ownedIssueCounters.issued(counter);
+
+        increaseIssuedCount(event);
+        return true;
+    }
+
+    // 유저 참조 (이벤트의 PK 로 프록시만 생성, userId 가 없는 이전 이벤트만 조회)
+    private User userOf(CouponIssueEvent event) {
+        if (event.getUserId() != null) {
+            return userRepository.getReferenceById(event.getUserId());
+        }
+        return userRepository.findByUserId(event.getUsername())
+            .orElseThrow(() -> new RuntimeException("User not found: " + event.getUsername()));
+    }
+
+    // 실제 발급 성공 시 Redis count / issued_total 증가
+    private void increaseIssuedCount(CouponIssueEvent event) {
+        Long count = issueMetrics.redisIncr().record(() -> addIssuedCount(event.getCouponId(), 1));
+
+        log.info("Coupon issued successfully. couponId: {}, username: {}, count: {}", 
+            event.getCouponId(), event.getUsername(), count);
+    }
+
+    /**
+     * 쿠폰 해시 count 갱신 (양수면 issued_total 도 함께, 스크립트 한 번)
+     * @return 갱신 후 count
+     */
+    Long addIssuedCount(Long couponId, long delta) {
+        return redisTemplate.execute(couponIssuedCountScript, CouponRedisKeys.of(couponId).hashKeys(),
+            String.valueOf(delta));
+    }
+
     /**
      * 쿠폰 취소 처리
      */
-    @Transactional
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public void cancelCoupon(Long couponId, String userIdPrincipal) {
         // 사용자 조회 (principal = userId)
         User user = userRepository.findByUserId(userIdPrincipal)
@@ -132,20 +451,33 @@ public class CouponIssueService {
         Coupon coupon = couponRepository.findById(couponId)
             .orElseThrow(() -> new RuntimeException("Coupon not found"));
         
-        CouponPolicy policy = couponPolicyRepository.findByIdWithLock(coupon.getPolicy().getId())
-            .orElseThrow(() -> new RuntimeException("CouponPolicy not found"));
-        policy.decrementIssuedQuantity();
-        couponPolicyRepository.save(policy);
+        if (issueStrategy == IssueLockStrategy.CONDITIONAL_UPDATE) {
+            CouponPolicy policy = couponPolicyRepository.findById(coupon.getPolicy().getId())
+                .orElseThrow(() -> new RuntimeException("CouponPolicy not found"));
+            if (policy.isStriped()) {
+                couponPolicySlotService.release(policy, userIdPrincipal);
+            } else {
+                couponPolicyRepository.decrementIssuedQuantityIfPositive(policy.getId());
+            }
+        } else {
+            CouponPolicy policy = couponPolicyRepository.findByIdWithLock(coupon.getPolicy().getId())
+                .orElseThrow(() -> new RuntimeException("CouponPolicy not found"));
+            policy.decrementIssuedQuantity();
+            couponPolicyRepository.save(policy);
+        }
+
+        // Redis count 감소 (실제 발급 수 감소, issued_total 은 유지)
+        Long count = addIssuedCount(couponId, -1);
 
-        // Redis count 감소 (실제 발급 수 감소)
-        Long count = redisTemplate.opsForValue()
-            .decrement("coupon:" + couponId + ":count");
+        // 게이트 재고 복구 + 중복 체크 대상에서 제거 (재발급 허용)
+        StockGate gate = stockGateRegistry.forCoupon(couponId);
+        gate.release(couponId, userIdPrincipal);
 
-        // Redis stock 증가 (재고 복구)
-        Long stock = redisTemplate.opsForValue()
-            .increment(String.format("coupon:%d:stock", couponId));
+        // 재고가 복구됐으므로 모든 노드의 SOLD OUT 플래그 해제
+        soldOutCache.clear(couponId);
+        issueResultStore.clear(couponId, userIdPrincipal);
 
-        log.info("Coupon cancelled successfully. couponId: {}, userId: {}, remaining count: {}, restored stock: {}", 
-            couponId, userId, count, stock);
+        log.info("Coupon cancelled successfully. couponId: {}, userId: {}, remaining count: {}, gate: {}", 
+            couponId, userId, count, gate.type());
     }
 }
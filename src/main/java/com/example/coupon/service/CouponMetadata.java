@@ -0,0 +1,31 @@
+package com.example.coupon.service;
+
+import com.example.coupon.entity.CouponPolicy;
+import com.example.coupon.entity.StockGateType;
+
+import java.time.LocalDateTime;
+
+/**
+ * 쿠폰 + 정책의 불변 메타데이터 (CouponMetadataCache 캐싱 단위)
+ * 발급 수량처럼 계속 바뀌는 값은 담지 않는다.
+ */
+public record CouponMetadata(
+        Long couponId,
+        Long policyId,
+        int totalQuantity,
+        LocalDateTime startAt,
+        LocalDateTime endAt,
+        boolean active,
+        boolean striped,
+        StockGateType stockGate
+) {
+
+    public static CouponMetadata of(Long couponId, CouponPolicy policy) {
+        return new CouponMetadata(couponId, policy.getId(), policy.getTotalQuantity(), policy.getStartAt(),
+                policy.getEndAt(), policy.isActive(), policy.isStriped(), policy.getStockGate());
+    }
+
+    public boolean isIssuable(LocalDateTime now) {
+        return active && !now.isBefore(startAt) && !now.isAfter(endAt);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.coupon.service;
+
+import com.example.coupon.entity.CouponPolicyChangedEvent;
+import com.example.coupon.exception.CouponNotFoundException;
+import com.example.coupon.repository.CouponPolicyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 쿠폰/정책 메타데이터 read-through near-cache (JVM 로컬)
+ * - couponId → CouponMetadata (policyId, totalQuantity, 발급 기간, active, 게이트 종류)
+ * - 없는 couponId 도 짧은 ttl 로 캐싱 (negative entry) → 임의 id 를 찌르는 요청이 DB 까지 가지 않음
+ * - 정책이 바뀌면 invalidatePolicy: Redis 전역 버전 INCR + pub/sub 으로 모든 노드에서 해당 정책 항목 제거
+ * - pub/sub 메시지를 놓친 노드는 주기적인 버전 확인에서 전체 항목을 비운다
+ *   (버전 키는 RedisTrackingCache 로 읽으므로 바뀌지 않은 동안의 확인은 네트워크 없이 로컬 조회,
+ *    tracking 을 못 쓰는 동안에는 매 확인이 Redis 왕복이므로 untracked-version-check-ms 간격으로만 확인)
+ * 크기 상한을 넘으면 만료 항목 → negative 항목 순으로 정리하고, 그래도 넘치면 캐싱하지 않고 조회만 한다.
+ */
+@Slf4j
+@Component
+public class CouponMetadataCache implements MessageListener {
+
+    public static final String CHANNEL = "coupon:metadata-evict";
+    private static final String VERSION_KEY = "coupon:metadata:version";
+
+    private final CouponPolicyRepository couponPolicyRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisTrackingCache redisTrackingCache;
+    private final long ttlMs;
+    private final long negativeTtlMs;
+    private final int maxSize;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // 로컬 무효화 세대: 조회 도중 무효화가 끼어들면 그 결과는 바로 만료시킨다
+    private final AtomicLong generation = new AtomicLong();
+    // 마지막으로 반영한 전역 버전 (-1 이면 아직 확인 전)
+    private volatile long knownVersion = -1;
+    // 마지막으로 버전을 확인한 시각(ms)
+    private volatile long lastVersionCheckMs;
+
+    @Value("${coupon.metadata-cache.untracked-version-check-ms:5000}")
+    private long untrackedVersionCheckMs;
+
+    public CouponMetadataCache(CouponPolicyRepository couponPolicyRepository,
+                               StringRedisTemplate redisTemplate,
+                               RedisTrackingCache redisTrackingCache,
+                               @Value("${coupon.metadata-cache.ttl-ms:60000}") long ttlMs,
+                               @Value("${coupon.metadata-cache.negative-ttl-ms:5000}") long negativeTtlMs,
+                               @Value("${coupon.metadata-cache.max-size:10000}") int maxSize) {
+        this.couponPolicyRepository = couponPolicyRepository;
+        this.redisTemplate = redisTemplate;
+        this.redisTrackingCache = redisTrackingCache;
+        this.ttlMs = ttlMs;
+        this.negativeTtlMs = negativeTtlMs;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @throws CouponNotFoundException 쿠폰이 없으면 (negative entry 포함)
+     */
+    public CouponMetadata get(Long couponId) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(couponId);
+        if (entry == null || entry.isExpired(now)) {
+            entry = hasRoom(now)
+                    ? entries.compute(couponId, (id, current) ->
+                            current != null && !current.isExpired(now) ? current : load(id, now))
+                    : load(couponId, now);
+        }
+        if (entry.metadata() == null) {
+            throw new CouponNotFoundException();
+        }
+        return entry.metadata();
+    }
+
+    /**
+     * 정책 메타데이터 변경 커밋 이후 무효화
+     * - 커밋 전에 무효화하면 다른 노드가 이전 값을 다시 읽어 캐싱할 수 있으므로 AFTER_COMMIT (트랜잭션 밖 변경은 즉시)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPolicyChanged(CouponPolicyChangedEvent event) {
+        invalidatePolicy(event.policyId());
+    }
+
+    /**
+     * 정책 변경 커밋 이후 호출 (기간/활성화/수량/게이트 종류 변경 등)
+     * 이 노드는 즉시, 다른 노드는 pub/sub 또는 다음 버전 확인 때 반영
+     */
+    public void invalidatePolicy(Long policyId) {
+        evictPolicy(policyId);
+        try {
+            Long version = redisTemplate.opsForValue().increment(VERSION_KEY);
+            redisTemplate.convertAndSend(CHANNEL, version + ":" + policyId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to broadcast coupon metadata invalidation. policyId: {}, reason: {}", policyId, e.toString());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            int separator = body.indexOf(':');
+            long version = Long.parseLong(body.substring(0, separator));
+            evictPolicy(Long.valueOf(body.substring(separator + 1)));
+            if (version > knownVersion) {
+                knownVersion = version;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Invalid coupon metadata message. body: {}", body);
+        }
+    }
+
+    // 놓친 무효화 메시지 보정: 전역 버전이 앞서 있으면 전체 비움
+    @Scheduled(fixedDelayString = "${coupon.metadata-cache.version-check-ms:1000}")
+    public void checkVersion() {
+        long nowMs = System.currentTimeMillis();
+        if (!redisTrackingCache.isTracking() && nowMs - lastVersionCheckMs < untrackedVersionCheckMs) {
+            return;
+        }
+        lastVersionCheckMs = nowMs;
+        try {
+            String value = redisTrackingCache.get(VERSION_KEY);
+            long version = value == null ? 0 : Long.parseLong(value);
+            if (knownVersion >= 0 && version > knownVersion) {
+                log.info("Coupon metadata version advanced, clearing cache. known: {}, current: {}", knownVersion, version);
+                generation.incrementAndGet();
+                entries.clear();
+            }
+            if (version > knownVersion) {
+                knownVersion = version;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to check coupon metadata version. reason: {}", e.toString());
+        }
+    }
+
+    private Entry load(Long couponId, long now) {
+        long loadGeneration = generation.get();
+        CouponMetadata metadata = couponPolicyRepository.findByCouponId(couponId)
+                .map(policy -> CouponMetadata.of(couponId, policy))
+                .orElse(null);
+        if (generation.get() != loadGeneration) {
+            return new Entry(metadata, now);
+        }
+        return new Entry(metadata, now + (metadata == null ? negativeTtlMs : ttlMs));
+    }
+
+    private void evictPolicy(Long policyId) {
+        generation.incrementAndGet();
+        entries.values().removeIf(entry -> entry.metadata() != null && policyId.equals(entry.metadata().policyId()));
+    }
+
+    private boolean hasRoom(long now) {
+        if (entries.size() < maxSize) {
+            return true;
+        }
+        entries.values().removeIf(entry -> entry.isExpired(now));
+        if (entries.size() >= maxSize) {
+            entries.values().removeIf(entry -> entry.metadata() == null);
+        }
+        return entries.size() < maxSize;
+    }
+
+    private record Entry(CouponMetadata metadata, long expiresAtMillis) {
+        private boolean isExpired(long now) {
+            return expiresAtMillis <= now;
+        }
+    }
+}
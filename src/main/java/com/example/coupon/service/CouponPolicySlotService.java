@@ -0,0 +1,135 @@
+package com.example.coupon.service;
+
+import com.example.coupon.entity.CouponPolicy;
+import com.example.coupon.repository.CouponPolicyRepository;
+import com.example.coupon.repository.CouponPolicySlotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 분산 슬롯 기반 발급 수량 관리 (CouponPolicy.stripeCount > 1)
+ * - 유저 hash 로 슬롯을 골라 해당 slot row 만 조건부 UPDATE → 정책 단위 row 경합 분산
+ * - 슬롯 quota 가 바닥나면 정책의 슬롯 전체를 slot_no 오름차순으로 잠근 뒤, 남은 quota 가 가장 많은 슬롯에서 절반을 옮겨와 재시도
+ *   (잠금 순서가 항상 같으므로 반대 방향 quota 이동끼리 데드락이 나지 않음)
+ * 호출 측 트랜잭션 안에서 실행되어야 한다.
+ * 단건 발급은 READ COMMITTED 라 home 슬롯 UPDATE 가 0건이면 home row 락이 남지 않고, 슬롯 전체 잠금 전에 쥔 슬롯이 없다.
+ * 한 트랜잭션에서 여러 유저를 처리하는 배치는 lockSlots 로 슬롯 전체를 먼저 잠근다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CouponPolicySlotService {
+
+    private final CouponPolicyRepository couponPolicyRepository;
+    private final CouponPolicySlotRepository couponPolicySlotRepository;
+
+    // 슬롯 생성이 커밋된 정책 (발급마다 슬롯 수를 조회하지 않음)
+    private final Set<Long> slottedPolicies = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 슬롯에서 1개 발급
+     * @return false 면 모든 슬롯 quota 소진 (SOLD OUT)
+     */
+    public boolean tryIssue(CouponPolicy policy, String userKey) {
+        ensureSlots(policy);
+
+        Long policyId = policy.getId();
+        int home = slotOf(policy, userKey);
+        // 1. home 슬롯만 조건부 UPDATE
+        if (couponPolicySlotRepository.incrementIssuedQuantityIfAvailable(policyId, home) == 1) {
+            return true;
+        }
+
+        // 2. home 소진 → 슬롯 전체를 오름차순으로 잠근 뒤 최신 값으로 quota 이동
+        List<Object[]> slots = couponPolicySlotRepository.lockRemainingByPolicyId(policyId);
+        // 잠금을 기다리는 동안 다른 트랜잭션이 home 에 quota 를 옮겨 왔을 수 있음
+        if (couponPolicySlotRepository.incrementIssuedQuantityIfAvailable(policyId, home) == 1) {
+            return true;
+        }
+        List<Object[]> donors = slots.stream()
+                .filter(row -> ((Number) row[0]).intValue() != home && ((Number) row[1]).intValue() > 0)
+                .sorted(Comparator.comparingInt((Object[] row) -> ((Number) row[1]).intValue()).reversed())
+                .toList();
+
+        for (Object[] donor : donors) {
+            int donorSlot = ((Number) donor[0]).intValue();
+            int amount = Math.max(((Number) donor[1]).intValue() / 2, 1);
+            if (couponPolicySlotRepository.takeQuota(policyId, donorSlot, amount) == 0) {
+                continue;
+            }
+            couponPolicySlotRepository.addQuota(policyId, home, amount);
+            log.info("Coupon policy slot quota moved. policyId: {}, from: {}, to: {}, amount: {}",
+                    policyId, donorSlot, home, amount);
+
+            if (couponPolicySlotRepository.incrementIssuedQuantityIfAvailable(policyId, home) == 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 배치 발급 전 정책의 슬롯 전체를 slot_no 오름차순으로 잠금
+     * 한 트랜잭션에서 여러 슬롯을 차례로 UPDATE 하면 다른 배치와 잠금 순서가 엇갈리므로 처음에 한 번에 잡는다.
+     */
+    public void lockSlots(CouponPolicy policy) {
+        ensureSlots(policy);
+        couponPolicySlotRepository.lockRemainingByPolicyId(policy.getId());
+    }
+
+    // 발급 취소 시 슬롯 수량 감소 (home 슬롯 우선)
+    public void release(CouponPolicy policy, String userKey) {
+        Long policyId = policy.getId();
+        int home = slotOf(policy, userKey);
+        if (couponPolicySlotRepository.decrementIssuedQuantityIfPositive(policyId, home) == 1) {
+            return;
+        }
+        for (int slotNo = 0; slotNo < policy.getStripeCount(); slotNo++) {
+            if (slotNo != home && couponPolicySlotRepository.decrementIssuedQuantityIfPositive(policyId, slotNo) == 1) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 슬롯이 아직 없으면 생성 (정책당 최초 1회)
+     * 정책 row 락을 잡고 다시 확인해서 여러 Consumer 가 동시에 만들지 않도록 함
+     * 있는 것을 확인했거나 생성이 커밋되면 기억해 두고 이후에는 조회하지 않는다.
+     */
+    private void ensureSlots(CouponPolicy policy) {
+        Long policyId = policy.getId();
+        if (slottedPolicies.contains(policyId)) {
+            return;
+        }
+        if (couponPolicySlotRepository.countByPolicyId(policyId) > 0) {
+            slottedPolicies.add(policyId);
+            return;
+        }
+        couponPolicyRepository.findByIdWithLock(policyId);
+        if (couponPolicySlotRepository.countByPolicyId(policyId) > 0) {
+            slottedPolicies.add(policyId);
+            return;
+        }
+        couponPolicySlotRepository.saveAll(policy.createSlots());
+        couponPolicySlotRepository.flush();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                slottedPolicies.add(policyId);
+            }
+        });
+        log.info("Coupon policy slots created. policyId: {}, stripeCount: {}", policyId, policy.getStripeCount());
+    }
+
+    private int slotOf(CouponPolicy policy, String userKey) {
+        return Math.floorMod(userKey.hashCode(), policy.getStripeCount());
+    }
+}
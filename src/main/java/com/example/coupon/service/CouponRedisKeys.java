@@ -0,0 +1,103 @@
+package com.example.coupon.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * 쿠폰별 Redis 키 (클러스터 hash tag 적용)
+ * - coupon:{id}           : 해시 (stock / limit / count / issued_total)
+ * - coupon:{id}:users     : 발급 요청 유저 집합
+ * - coupon:{id}:result:.. : 유저별 발급 결과
+ * - coupon:{id:sN}        : 분할 재고 샤드 해시 (REDIS_SPLIT, 샤드마다 다른 슬롯), coupon:{id:sN}:users 와 같은 슬롯
+ * {id} 가 같으면 같은 슬롯이므로 해시와 유저 집합을 한 스크립트에서 함께 다룰 수 있다.
+ * 키 문자열은 쿠폰별로 한 번만 만들어 재사용 (요청 경로에서 String.format 없음)
+ */
+public final class CouponRedisKeys {
+
+    // 해시 필드
+    public static final String STOCK = "stock";
+    public static final String LIMIT = "limit";
+    public static final String COUNT = "count";
+    public static final String ISSUED_TOTAL = "issued_total";
+
+    private static final int MAX_CACHED = 10_000;
+    private static final Map<Long, CouponRedisKeys> CACHE = new ConcurrentHashMap<>();
+
+    private final Long couponId;
+    private final String hash;
+    private final String users;
+    private final String resultPrefix;
+    // 스크립트 KEYS 인자 (게이트: 해시 + 유저 집합, 그 외: 해시)
+    private final List<String> gateKeys;
+    private final List<String> hashKeys;
+    // 분할 재고 샤드별 [해시, 유저 집합] (샤드 수가 바뀌면 다시 만듦)
+    private volatile List<List<String>> shardKeys = List.of();
+
+    private CouponRedisKeys(Long couponId) {
+        this.couponId = couponId;
+        String tag = "coupon:{" + couponId + "}";
+        this.hash = tag;
+        this.users = tag + ":users";
+        this.resultPrefix = tag + ":result:";
+        this.gateKeys = List.of(hash, users);
+        this.hashKeys = List.of(hash);
+    }
+
+    public static CouponRedisKeys of(Long couponId) {
+        CouponRedisKeys keys = CACHE.get(couponId);
+        if (keys != null) {
+            return keys;
+        }
+        // 지난 캠페인 키가 쌓이지 않도록 상한을 넘으면 비우고 다시 만든다
+        if (CACHE.size() >= MAX_CACHED) {
+            CACHE.clear();
+        }
+        return CACHE.computeIfAbsent(couponId, CouponRedisKeys::new);
+    }
+
+    public String hash() {
+        return hash;
+    }
+
+    public String users() {
+        return users;
+    }
+
+    public String result(String username) {
+        return resultPrefix + username;
+    }
+
+    public List<String> gateKeys() {
+        return gateKeys;
+    }
+
+    // 게이트 KEYS + 이 유저의 발급 결과 키 (수락 시 스크립트가 이전 결과를 지움)
+    public List<String> gateKeys(String username) {
+        return List.of(hash, users, result(username));
+    }
+
+    public List<String> hashKeys() {
+        return hashKeys;
+    }
+
+    // 해시 + 이 유저의 발급 결과 키 (coupon-stock-decr.lua)
+    public List<String> hashKeys(String username) {
+        return List.of(hash, result(username));
+    }
+
+    public List<String> shardKeys(int index, int shards) {
+        List<List<String>> keys = shardKeys;
+        if (keys.size() != shards) {
+            keys = IntStream.range(0, shards)
+                    .mapToObj(i -> {
+                        String shard = "coupon:{" + couponId + ":s" + i + "}";
+                        return List.of(shard, shard + ":users");
+                    })
+                    .toList();
+            shardKeys = keys;
+        }
+        return keys.get(index);
+    }
+}
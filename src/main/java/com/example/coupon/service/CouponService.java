@@ -1,91 +1,133 @@
 package com.example.coupon.service;
 
 import com.example.coupon.dto.CouponIssueEvent;
-import com.example.coupon.entity.Coupon;
+import com.example.coupon.entity.User;
+import com.example.coupon.exception.CouponAlreadyIssuedException;
+import com.example.coupon.exception.CouponIssueThrottledException;
+import com.example.coupon.exception.CouponNotIssuableException;
 import com.example.coupon.exception.CouponSoldOutException;
-import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.repository.UserRepository;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CouponService {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final StringRedisTemplate redisTemplate;
-    private final CouponRepository couponRepository;
-
-    private static final String COUPON_LIMIT_KEY_PREFIX = "coupon:%d:limit";
-    // 남은 재고(선차단용) 카운터
-    private static final String COUPON_STOCK_KEY_PREFIX = "coupon:%d:stock";
-    private static final String COUPON_COUNT_KEY_PREFIX = "coupon:%d:count";
+    private final CouponIssuePublisher couponIssuePublisher;
+    private final StockGateRegistry stockGateRegistry;
+    private final SoldOutCache soldOutCache;
+    private final IssuedUserFilter issuedUserFilter;
+    private final IssueBacklogGuard issueBacklogGuard;
+    private final IssueMetrics issueMetrics;
+    private final CouponStockGauges stockGauges;
+    private final UserRepository userRepository;
+    private final CouponMetadataCache couponMetadataCache;
+    private final IssueResultStore issueResultStore;
 
     /**
      * 쿠폰 발급 요청
-     * - 쿠폰별 정책(totalQuantity)을 기반으로 Redis stock(남은 재고) 초기화
-     * - Redis stock(DECR)을 통해 선차단 후 Kafka로 비동기 처리
+     * - 재고 선차단 (쿠폰 정책별 StockGate) 후 Kafka로 비동기 처리
+     * - 이벤트에 유저 PK / 정책 id 를 담아 Consumer 의 조회를 생략
+     * @param memberId users.id (AccessToken uid 클레임), 이전 토큰이면 null → userId 로 조회
      */
-    public void issueCoupon(String username, Long couponId) {
-        // 1. 남은 재고(stock) 키 계산
-        String stockKey = String.format(COUPON_STOCK_KEY_PREFIX, couponId);
-
-        // 2. stock 키가 없으면 totalQuantity로 초기화 (정책 기준)
-        Boolean hasStockKey = redisTemplate.hasKey(stockKey);
-        if (hasStockKey == null || !hasStockKey) {
-            int limit = getCouponLimit(couponId); // CouponPolicy.totalQuantity 기반
-            redisTemplate.opsForValue().set(stockKey, String.valueOf(limit));
+    public void issueCoupon(Long memberId, String username, Long couponId) {
+        Long userId = memberId != null ? memberId : resolveMemberId(username);
+
+        Timer.Sample sample = issueMetrics.start();
+        String outcome = IssueMetrics.ACCEPTED;
+        StockGate gate;
+        try {
+            gate = admit(username, couponId);
+        } catch (RuntimeException e) {
+            outcome = IssueMetrics.outcomeOf(e);
+            throw e;
+        } finally {
+            issueMetrics.gate(sample, outcome);
         }
 
-        // 3. 남은 재고에서 1 감소 (원자적)
-        Long remain = redisTemplate.opsForValue().decrement(stockKey);
-
-        // 재고가 0 미만으로 내려갔으면 즉시 복구 후 SOLD OUT
-        if (remain != null && remain < 0) {
-            // 보정: 잘못 깎인 만큼 되돌리기
-            redisTemplate.opsForValue().increment(stockKey);
-            log.warn("Coupon sold out at Redis stock gate. couponId: {}, remain: {}", couponId, remain);
-            throw new CouponSoldOutException();
+        // 이전 요청의 최종 결과(FAILED/NOT_ISSUABLE 후 재요청 등)를 지워 새 요청은 PENDING 부터 보이게 함 (발행 전)
+        // Redis 스크립트 게이트는 수락한 스크립트 안에서 이미 지웠으므로 생략
+        if (!gate.clearsIssueResult()) {
+            issueResultStore.clear(couponId, username);
         }
 
-        // 4. Kafka 발행 (비동기)
-        CouponIssueEvent event = new CouponIssueEvent(couponId, username);
-        kafkaTemplate.send("coupon-issue", event);
+        // Kafka 발행 (비동기, 실패 시 재시도 후 재고 반납)
+        couponIssuePublisher.publish(new CouponIssueEvent(couponId, stockGateRegistry.policyIdOf(couponId),
+                userId, username, System.currentTimeMillis()));
+        issueBacklogGuard.accepted();
 
-        log.debug("Coupon issue event sent to Kafka. couponId: {}, username: {}, remainStock: {}", couponId, username, remain);
+        log.debug("Coupon issue event sent to Kafka. couponId: {}, username: {}", couponId, username);
     }
 
-    /**
-     * 쿠폰별 발급 한도(limit) 조회
-     * - 우선 Redis에서 조회
-     * - 없으면 DB에서 Coupon → CouponPolicy.totalQuantity 조회 후 Redis에 캐싱
-     */
-    private int getCouponLimit(Long couponId) {
-        String limitKey = String.format(COUPON_LIMIT_KEY_PREFIX, couponId);
-
-        String cachedLimit = redisTemplate.opsForValue().get(limitKey);
-        if (cachedLimit != null) {
-            try {
-                return Integer.parseInt(cachedLimit);
-            } catch (NumberFormatException e) {
-                log.warn("Invalid limit value in Redis. key: {}, value: {}", limitKey, cachedLimit);
-                // 아래에서 DB에서 다시 읽어 리셋
-            }
+    private void checkIssuable(CouponMetadata metadata) {
+        LocalDateTime now = LocalDateTime.now();
+        if (metadata.isIssuable(now)) {
+            return;
         }
+        CouponNotIssuableException.Reason reason = !metadata.active()
+                ? CouponNotIssuableException.Reason.INACTIVE
+                : now.isBefore(metadata.startAt())
+                ? CouponNotIssuableException.Reason.NOT_STARTED
+                : CouponNotIssuableException.Reason.ENDED;
+        log.debug("Coupon not issuable at gate. couponId: {}, reason: {}", metadata.couponId(), reason);
+        throw new CouponNotIssuableException(reason);
+    }
+
+    private Long resolveMemberId(String username) {
+        return userRepository.findByUserId(username)
+                .map(User::getId)
+                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+    }
 
-        // DB에서 Coupon 조회 후 Policy의 totalQuantity 사용
-        Coupon coupon = couponRepository.findById(couponId)
-            .orElseThrow(() -> new IllegalArgumentException("Coupon not found. id=" + couponId));
+    // 선차단 (발급 기간/중복/매진/backlog/재고)
+    private StockGate admit(String username, Long couponId) {
+        boolean dedupe = issuedUserFilter.isEnabled();
+
+        // 이 노드에서 이미 확인된 중복 요청(봇 재시도 등)은 Redis 호출 없이 거절
+        if (dedupe && issuedUserFilter.isKnownDuplicate(couponId, username)) {
+            throw new CouponAlreadyIssuedException();
+        }
 
-        int limit = coupon.getPolicy().getTotalQuantity();
+        // 발급 기간/활성화 여부 (캐시된 정책 기준, 재고를 건드리기 전에 거절 → Consumer 에서 버려지는 재고 없음)
+        checkIssuable(couponMetadataCache.get(couponId));
 
-        // Redis에 캐싱 (TTL은 필요에 따라 추가 가능)
-        redisTemplate.opsForValue().set(limitKey, String.valueOf(limit));
+        StockGate gate = stockGateRegistry.forCoupon(couponId);
+
+        // 매진이 확인된 쿠폰은 Redis 호출 없이 거절
+        if (soldOutCache.isSoldOut(couponId) && !gate.hasLocalStock(couponId)) {
+            throw new CouponSoldOutException();
+        }
+
+        // Consumer backlog 가 허용치를 넘으면 재고 차감 전에 거절 (429 + Retry-After)
+        long retryAfter = issueBacklogGuard.checkAdmission();
+        if (retryAfter > 0) {
+            log.warn("Coupon issue throttled by consumer backlog. couponId: {}, retryAfter: {}s", couponId, retryAfter);
+            throw new CouponIssueThrottledException(retryAfter);
+        }
+
+        // 재고 선점 (쿠폰 정책별 StockGate)
+        StockGate.Result result = gate.tryAcquire(couponId, username);
+        if (result == StockGate.Result.SOLD_OUT) {
+            log.warn("Coupon sold out at stock gate. couponId: {}, gate: {}", couponId, gate.type());
+            soldOutCache.markSoldOut(couponId);
+            throw new CouponSoldOutException();
+        }
+        if (dedupe) {
+            issuedUserFilter.remember(couponId, username);
+        }
+        if (result == StockGate.Result.DUPLICATE) {
+            log.warn("Duplicate coupon issue request at stock gate. couponId: {}, username: {}, gate: {}",
+                    couponId, username, gate.type());
+            throw new CouponAlreadyIssuedException();
+        }
 
-        return limit;
+        stockGauges.track(couponId);
+        return gate;
     }
 }
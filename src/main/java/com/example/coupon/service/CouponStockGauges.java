@@ -0,0 +1,100 @@
+package com.example.coupon.service;
+
+import com.example.coupon.entity.StockGateType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 쿠폰별 Redis 해시 stock/count 필드 gauge
+ * - 발급 요청이 들어온 쿠폰을 등록하고, 주기적으로 쿠폰별 HMGET 을 파이프라인 한 번으로 보내 값을 갱신
+ * - scrape 시점에는 Redis 를 호출하지 않고 마지막 값만 노출
+ * - 분할 재고 쿠폰(REDIS_SPLIT)은 coupon:{id} 에 stock 이 없으므로 게이트의 샤드 재고 합을 사용
+ * 태그 cardinality 보호를 위해 max-coupons 개까지만 등록
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponStockGauges {
+
+    private static final List<Object> FIELDS = List.of(CouponRedisKeys.STOCK, CouponRedisKeys.COUNT);
+
+    private final MeterRegistry registry;
+    private final StringRedisTemplate redisTemplate;
+    private final StockGateRegistry stockGateRegistry;
+
+    // couponId → {stock, count}
+    private final Map<Long, AtomicLong[]> holders = new ConcurrentHashMap<>();
+
+    @Value("${coupon.metrics.stock-gauge-max-coupons:100}")
+    private int maxCoupons;
+
+    public void track(Long couponId) {
+        if (holders.containsKey(couponId) || holders.size() >= maxCoupons) {
+            return;
+        }
+        holders.computeIfAbsent(couponId, id -> {
+            AtomicLong stock = new AtomicLong();
+            AtomicLong count = new AtomicLong();
+            Gauge.builder("coupon.stock.remaining", stock, AtomicLong::get)
+                    .description("Redis coupon:{id} stock")
+                    .tag("couponId", String.valueOf(id))
+                    .register(registry);
+            Gauge.builder("coupon.issued.count", count, AtomicLong::get)
+                    .description("Redis coupon:{id} count")
+                    .tag("couponId", String.valueOf(id))
+                    .register(registry);
+            return new AtomicLong[]{stock, count};
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.metrics.stock-gauge-interval-ms:5000}")
+    public void refresh() {
+        if (holders.isEmpty()) {
+            return;
+        }
+        List<Long> couponIds = new ArrayList<>(holders.keySet());
+        try {
+            List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    for (Long couponId : couponIds) {
+                        redisTemplate.opsForHash().multiGet(CouponRedisKeys.of(couponId).hash(), FIELDS);
+                    }
+                    return null;
+                }
+            });
+            for (int i = 0; i < couponIds.size(); i++) {
+                List<?> values = (List<?>) results.get(i);
+                AtomicLong[] holder = holders.get(couponIds.get(i));
+                holder[0].set(parse(values.get(0)));
+                holder[1].set(parse(values.get(1)));
+            }
+            for (Long couponId : couponIds) {
+                StockGate gate = stockGateRegistry.forCoupon(couponId);
+                if (gate.type() == StockGateType.REDIS_SPLIT) {
+                    holders.get(couponId)[0].set(gate.remaining(couponId));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh coupon stock gauges. reason: {}", e.toString());
+        }
+    }
+
+    private long parse(Object value) {
+        return value == null ? 0 : Long.parseLong((String) value);
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.coupon.service;
+
+import com.example.coupon.entity.Coupon;
+import com.example.coupon.entity.CouponPolicy;
+import com.example.coupon.entity.StockGateType;
+import com.example.coupon.jwt.JwtTokenProvider;
+import com.example.coupon.repository.CouponRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 발급 시작 전 워밍업 / 종료 후 Redis 키 정리
+ * - 시작 lead-time-ms 전 쿠폰: 쿠폰 해시 stock/limit/count 를 스크립트 한 번으로 세팅 (첫 요청의 초기화 경쟁 제거),
+ *   메타데이터 near-cache 적재, 로컬 조회/JWT 파싱 합성 호출로 JIT 워밍업,
+ *   게이트 스크립트는 synthetic-script-calls 번만 호출 (스크립트 캐시/커넥션 확인용, 모든 노드가 같은 합성 슬롯에 보내므로 소수로 제한)
+ * - 종료된 쿠폰: 쿠폰 해시/users 키에 만료 시각(endAt + expire-after-end-ms)을 걸어 지난 캠페인 키가 쌓이지 않게 함
+ *   (종료 후 게이트/임대 반납은 coupon-stock-release.lua 가 없는 키를 되살리지 않으므로 만료가 유지됨)
+ * 모든 노드에서 실행 (키 세팅은 멱등, near-cache/JIT 는 노드마다 필요)
+ */
+@Slf4j
+@Component
+@Profile("!inmemory")
+public class CouponWarmupScheduler {
+
+    // 합성 게이트 호출용 (IDENTITY id 는 1부터이므로 실제 쿠폰과 겹치지 않음)
+    private static final long WARMUP_COUPON_ID = 0L;
+
+    private final CouponRepository couponRepository;
+    private final CouponMetadataCache couponMetadataCache;
+    private final StockGateRegistry stockGateRegistry;
+    private final SplitStockGate splitStockGate;
+    private final SoldOutCache soldOutCache;
+    private final IssuedUserFilter issuedUserFilter;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisScript<Long> couponStockSeedScript;
+    private final RedisScript<Long> couponIssueGateScript;
+    private final boolean enabled;
+    private final long leadTimeMs;
+    private final long expireAfterEndMs;
+    private final int syntheticCalls;
+    private final int syntheticScriptCalls;
+
+    // 이 노드에서 워밍업을 마친 쿠폰 (종료 후 정리 때 제거)
+    private final Set<Long> warmed = ConcurrentHashMap.newKeySet();
+    // 마지막으로 종료 쿠폰을 확인한 시각 (기동 시 expire-lookback-ms 만큼 과거부터)
+    private volatile LocalDateTime lastExpiredCheck;
+
+    public CouponWarmupScheduler(CouponRepository couponRepository,
+                                 CouponMetadataCache couponMetadataCache,
+                                 StockGateRegistry stockGateRegistry,
+                                 SplitStockGate splitStockGate,
+                                 SoldOutCache soldOutCache,
+                                 IssuedUserFilter issuedUserFilter,
+                                 JwtTokenProvider jwtTokenProvider,
+                                 StringRedisTemplate redisTemplate,
+                                 RedisScript<Long> couponStockSeedScript,
+                                 RedisScript<Long> couponIssueGateScript,
+                                 @Value("${coupon.warmup.enabled:true}") boolean enabled,
+                                 @Value("${coupon.warmup.lead-time-ms:120000}") long leadTimeMs,
+                                 @Value("${coupon.warmup.expire-after-end-ms:3600000}") long expireAfterEndMs,
+                                 @Value("${coupon.warmup.expire-lookback-ms:604800000}") long expireLookbackMs,
+                                 @Value("${coupon.warmup.synthetic-calls:2000}") int syntheticCalls,
+                                 @Value("${coupon.warmup.synthetic-script-calls:10}") int syntheticScriptCalls) {
+        this.couponRepository = couponRepository;
+        this.couponMetadataCache = couponMetadataCache;
+        this.stockGateRegistry = stockGateRegistry;
+        this.splitStockGate = splitStockGate;
+        this.soldOutCache = soldOutCache;
+        this.issuedUserFilter = issuedUserFilter;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.redisTemplate = redisTemplate;
+        this.couponStockSeedScript = couponStockSeedScript;
+        this.couponIssueGateScript = couponIssueGateScript;
+        this.enabled = enabled;
+        this.leadTimeMs = leadTimeMs;
+        this.expireAfterEndMs = expireAfterEndMs;
+        this.syntheticCalls = syntheticCalls;
+        this.syntheticScriptCalls = syntheticScriptCalls;
+        this.lastExpiredCheck = LocalDateTime.now().minus(Duration.ofMillis(expireLookbackMs));
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.warmup.poll-interval-ms:10000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            warmUpcoming(now);
+        } catch (RuntimeException e) {
+            log.warn("Failed to warm up upcoming coupons. reason: {}", e.toString());
+        }
+        try {
+            expireEnded(now);
+        } catch (RuntimeException e) {
+            log.warn("Failed to expire ended coupon keys. reason: {}", e.toString());
+        }
+    }
+
+    private void warmUpcoming(LocalDateTime now) {
+        List<Coupon> upcoming = couponRepository.findStartingBetween(now, now.plus(Duration.ofMillis(leadTimeMs)));
+        boolean warmedAny = false;
+        for (Coupon coupon : upcoming) {
+            Long couponId = coupon.getId();
+            if (warmed.contains(couponId)) {
+                continue;
+            }
+            CouponPolicy policy = coupon.getPolicy();
+            // 1. 메타데이터 near-cache 적재 + 게이트 선택
+            couponMetadataCache.get(couponId);
+            StockGate gate = stockGateRegistry.forCoupon(couponId);
+
+            // 2. stock/limit/count 사전 세팅
+            //    (IN_MEMORY 는 Redis 재고를 쓰지 않고, REDIS_SPLIT 샤드는 게이트 스크립트가 몫만큼 원자적으로 초기화)
+            Long seeded = null;
+            if (gate.type() != StockGateType.IN_MEMORY && gate.type() != StockGateType.REDIS_SPLIT) {
+                seeded = redisTemplate.execute(couponStockSeedScript, CouponRedisKeys.of(couponId).hashKeys(),
+                        String.valueOf(policy.getTotalQuantity()), String.valueOf(expireAtMillis(policy.getEndAt())));
+            }
+
+            // 3. 요청 경로의 로컬 캐시 조회 워밍업 (Redis 호출 없음)
+            for (int i = 0; i < syntheticCalls; i++) {
+                soldOutCache.isSoldOut(couponId);
+                issuedUserFilter.isKnownDuplicate(couponId, "warmup-" + i);
+                stockGateRegistry.forCoupon(couponId);
+            }
+            warmed.add(couponId);
+            warmedAny = true;
+            log.info("Coupon warmed up. couponId: {}, startAt: {}, gate: {}, seeded: {}",
+                    couponId, policy.getStartAt(), gate.type(), seeded);
+        }
+
+        // 4. 게이트 스크립트/JWT 합성 호출 (캠페인마다 한 번이면 충분)
+        if (warmedAny && syntheticScriptCalls > 0) {
+            warmGateScript();
+        }
+        if (warmedAny && syntheticCalls > 0) {
+            jwtTokenProvider.warmup(syntheticCalls);
+        }
+    }
+
+    // 합성 쿠폰 키로 게이트 스크립트 실행 (실제 재고는 건드리지 않음, 블로킹 왕복이므로 소수만)
+    private void warmGateScript() {
+        List<String> keys = CouponRedisKeys.of(WARMUP_COUPON_ID).gateKeys();
+        String limit = String.valueOf(syntheticScriptCalls);
+        try {
+            for (int i = 0; i < syntheticScriptCalls; i++) {
+                redisTemplate.execute(couponIssueGateScript, keys, "warmup-" + i, limit);
+            }
+        } finally {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    // 종료된 쿠폰 키 만료 (이미 만료 시각이 지났으면 Redis 가 바로 삭제)
+    private void expireEnded(LocalDateTime now) {
+        List<Coupon> ended = couponRepository.findEndedBetween(lastExpiredCheck, now);
+        if (!ended.isEmpty()) {
+            Map<Long, Long> expireAt = new HashMap<>();
+            Map<Long, Boolean> split = new HashMap<>();
+            ended.forEach(coupon -> {
+                expireAt.put(coupon.getId(), expireAtMillis(coupon.getPolicy().getEndAt()));
+                split.put(coupon.getId(),
+                        stockGateRegistry.typeOf(coupon.getPolicy().getStockGate()) == StockGateType.REDIS_SPLIT);
+            });
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                expireAt.forEach((couponId, millis) -> expireKeys(connection, couponId, millis, split.get(couponId)));
+                return null;
+            });
+            warmed.removeAll(expireAt.keySet());
+            log.info("Ended coupon keys expired. coupons: {}", expireAt.size());
+        }
+        lastExpiredCheck = now;
+    }
+
+    private void expireKeys(RedisConnection connection, Long couponId, long millis, boolean split) {
+        // 쿠폰 해시 + 유저 집합 (+ 분할 재고 샤드)
+        for (String key : CouponRedisKeys.of(couponId).gateKeys()) {
+            connection.keyCommands().pExpireAt(key.getBytes(StandardCharsets.UTF_8), millis);
+        }
+        if (split) {
+            for (String key : splitStockGate.keysOf(couponId)) {
+                connection.keyCommands().pExpireAt(key.getBytes(StandardCharsets.UTF_8), millis);
+            }
+        }
+    }
+
+    private long expireAtMillis(LocalDateTime endAt) {
+        return endAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + expireAfterEndMs;
+    }
+}
@@ -1,12 +1,16 @@
 package com.example.coupon.service;
 
+import com.example.coupon.jwt.MemberPrincipal;
 import com.example.coupon.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
@@ -20,11 +24,8 @@ public class CustomUserDetailsService implements UserDetailsService {
                 userRepository.findByUserId(loginId)
                         .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
-        return org.springframework.security.core.userdetails.User.builder()
-                // Security principal로 userId 사용
-                .username(user.getUserId())
-                .password(user.getPassword())
-                .roles("USER")
-                .build();
+        // Security principal로 userId 사용, PK 는 AccessToken uid 클레임으로 전달
+        return new MemberPrincipal(user.getId(), user.getUserId(), user.getPassword(),
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
     }
 }
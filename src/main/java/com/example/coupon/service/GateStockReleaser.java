@@ -0,0 +1,54 @@
+package com.example.coupon.service;
+
+import com.example.coupon.dto.CouponIssueEvent;
+import com.example.coupon.dto.CouponIssueStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 게이트는 통과했지만 발급되지 않고 끝난 요청의 게이트 재고 반납 + 중복 체크 해제
+ * - 결과 키가 비어 있을(PENDING) 때만 최종 결과를 기록하고, 기록에 성공한 호출만 반납
+ *   → Kafka 재전달/재시도/DLT 로 같은 요청이 여러 번 실패로 끝나도 반납은 한 번 (게이트 초과 선점 없음)
+ * - 트랜잭션 안에서 호출하면 커밋 이후에 처리 (롤백되면 재시도 결과를 기다림)
+ * 반납된 유저는 다시 요청할 수 있고, 새 요청이 수락되면 결과 키가 지워진다 (게이트 스크립트 또는 CouponService).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GateStockReleaser {
+
+    private final StockGateRegistry stockGateRegistry;
+    private final SoldOutCache soldOutCache;
+    private final IssueResultStore issueResultStore;
+
+    public void releaseAfterCommit(CouponIssueEvent event, CouponIssueStatus status) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(event, status);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(event, status);
+            }
+        });
+    }
+
+    private void release(CouponIssueEvent event, CouponIssueStatus status) {
+        if (!issueResultStore.recordIfPending(event.getCouponId(), event.getUsername(), status)) {
+            log.info("Gate stock already released or request already finished. couponId: {}, username: {}, status: {}",
+                    event.getCouponId(), event.getUsername(), status);
+            return;
+        }
+        try {
+            stockGateRegistry.forCoupon(event.getCouponId()).release(event.getCouponId(), event.getUsername());
+            soldOutCache.clear(event.getCouponId());
+        } catch (RuntimeException e) {
+            log.warn("Failed to release gate stock. couponId: {}, username: {}, status: {}",
+                    event.getCouponId(), event.getUsername(), status, e);
+        }
+    }
+}
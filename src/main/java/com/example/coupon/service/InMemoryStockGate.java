@@ -0,0 +1,69 @@
+package com.example.coupon.service;
+
+import com.example.coupon.entity.StockGateType;
+import com.example.coupon.inmemory.InMemoryStockStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * JVM 메모리 게이트 (단일 노드 배포 / 테스트용)
+ * - 게이트 스크립트와 같은 의미의 연산을 InMemoryStockStore 로 수행 (Redis 호출 없음)
+ * - 노드 간 공유되지 않으므로 여러 노드에서 쓰면 노드 수만큼 초과 선점될 수 있음 (Consumer 의 DB 수량 검증이 최종 방어)
+ */
+@Component
+@RequiredArgsConstructor
+public class InMemoryStockGate implements StockGate {
+
+    private static final long GATE_SOLD_OUT = -1L;
+    private static final long GATE_DUPLICATE = -2L;
+    private static final long GATE_NOT_INITIALIZED = -3L;
+
+    private final CouponMetadataCache couponMetadataCache;
+    private final IssuedUserFilter issuedUserFilter;
+
+    private final InMemoryStockStore store = new InMemoryStockStore();
+
+    @Override
+    public StockGateType type() {
+        return StockGateType.IN_MEMORY;
+    }
+
+    @Override
+    public Result tryAcquire(Long couponId, String userId) {
+        String member = issuedUserFilter.isEnabled() ? userId : "";
+        long remain = gate(couponId, member, "");
+        if (remain == GATE_NOT_INITIALIZED) {
+            remain = gate(couponId, member, String.valueOf(loadCouponLimit(couponId)));
+        }
+        if (remain == GATE_SOLD_OUT) {
+            return Result.SOLD_OUT;
+        }
+        if (remain == GATE_DUPLICATE) {
+            return Result.DUPLICATE;
+        }
+        return Result.ACQUIRED;
+    }
+
+    @Override
+    public void release(Long couponId, String userId) {
+        CouponRedisKeys keys = CouponRedisKeys.of(couponId);
+        store.hashIncrementBy(keys.hash(), CouponRedisKeys.STOCK, 1);
+        store.remove(keys.users(), userId);
+        issuedUserFilter.forget(couponId, userId);
+    }
+
+    @Override
+    public long remaining(Long couponId) {
+        String stock = store.hashGet(CouponRedisKeys.of(couponId).hash(), CouponRedisKeys.STOCK);
+        return stock == null ? loadCouponLimit(couponId) : Math.max(Long.parseLong(stock), 0);
+    }
+
+    private long gate(Long couponId, String member, String limit) {
+        CouponRedisKeys keys = CouponRedisKeys.of(couponId);
+        return store.gate(keys.hash(), keys.users(), null, member, limit);
+    }
+
+    private int loadCouponLimit(Long couponId) {
+        return couponMetadataCache.get(couponId).totalQuantity();
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.coupon.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * coupon-issue 토픽 backlog 기반 발급 요청 admission control
+ * - 주기적으로 Consumer 그룹 lag(end offset - committed offset)과 커밋 속도(drain rate)를 측정
+ * - 허용 backlog = drain rate × max-delay (min-lag ~ max-lag 범위로 제한)
+ * - 추정 lag 이 허용 backlog 를 넘으면 재고를 건드리기 전에 429 로 거절하고, 비워지는 데 걸릴 시간을 Retry-After 로 안내
+ * lag 조회가 실패하거나 오래되면 fail-open (요청 허용)
+ * 커밋된 offset 이 없는 파티션(새 그룹, offset 리셋 직후)은 lag 을 알 수 없으므로 제외한다.
+ * AdminClient 호출은 블로킹이므로 공용 @Scheduled 스레드가 아닌 전용 스레드에서 admin-timeout-ms 제한으로 실행한다.
+ * 그룹은 단건/배치 Consumer 가 함께 쓰는 spring.kafka.consumer.group-id
+ */
+@Slf4j
+@Component
+public class IssueBacklogGuard {
+
+    private static final String TOPIC = "coupon-issue";
+    // drain rate EWMA 가중치
+    private static final double RATE_ALPHA = 0.3;
+
+    private final KafkaAdmin kafkaAdmin;
+    private final String groupId;
+    private final boolean enabled;
+    private final long pollIntervalMs;
+    private final long maxDelayMs;
+    private final long minLag;
+    private final long maxLag;
+    private final long maxRetryAfterSeconds;
+    private final long adminTimeoutMs;
+
+    private volatile AdminClient adminClient;
+    private ScheduledExecutorService scheduler;
+
+    // 마지막 측정값
+    private volatile long lag;
+    // 파티션별 마지막 커밋 offset (drain rate 는 두 번 연속 커밋이 보인 파티션의 증가분으로만 계산)
+    private volatile Map<TopicPartition, Long> lastCommitted = Map.of();
+    private volatile long measuredAt;
+    private volatile double drainRatePerSec;
+    // 마지막 측정 이후 이 노드에서 허용한 요청 수 (다음 측정 전까지 lag 추정에 더함)
+    private final LongAdder acceptedSinceMeasure = new LongAdder();
+
+    public IssueBacklogGuard(
+            KafkaAdmin kafkaAdmin,
+            @Value("${spring.kafka.consumer.group-id:coupon-issue-consumer}") String groupId,
+            @Value("${coupon.admission.enabled:true}") boolean enabled,
+            @Value("${coupon.admission.poll-interval-ms:1000}") long pollIntervalMs,
+            @Value("${coupon.admission.max-delay-ms:5000}") long maxDelayMs,
+            @Value("${coupon.admission.min-lag:1000}") long minLag,
+            @Value("${coupon.admission.max-lag:50000}") long maxLag,
+            @Value("${coupon.admission.max-retry-after-seconds:30}") long maxRetryAfterSeconds,
+            @Value("${coupon.admission.admin-timeout-ms:2000}") long adminTimeoutMs
+    ) {
+        this.kafkaAdmin = kafkaAdmin;
+        this.groupId = groupId;
+        this.enabled = enabled;
+        this.pollIntervalMs = pollIntervalMs;
+        this.maxDelayMs = maxDelayMs;
+        this.minLag = minLag;
+        this.maxLag = maxLag;
+        this.maxRetryAfterSeconds = maxRetryAfterSeconds;
+        this.adminTimeoutMs = adminTimeoutMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "issue-backlog-guard");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::measure, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 발급 요청 허용 여부
+     * @return 0 이면 허용, 양수면 거절 + Retry-After(초)
+     */
+    public long checkAdmission() {
+        if (!enabled || isStale()) {
+            return 0;
+        }
+        long estimatedLag = lag + acceptedSinceMeasure.sum();
+        long allowed = allowedBacklog();
+        if (estimatedLag <= allowed) {
+            return 0;
+        }
+        return retryAfterSeconds(estimatedLag, allowed);
+    }
+
+    // 게이트 통과 후 Kafka 로 발행한 요청 기록
+    public void accepted() {
+        acceptedSinceMeasure.increment();
+    }
+
+    void measure() {
+        try {
+            AdminClient admin = adminClient();
+            Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(groupId)
+                    .partitionsToOffsetAndMetadata().get(adminTimeoutMs, TimeUnit.MILLISECONDS);
+
+            List<TopicPartition> partitions = admin.describeTopics(List.of(TOPIC)).allTopicNames()
+                    .get(adminTimeoutMs, TimeUnit.MILLISECONDS)
+                    .get(TOPIC).partitions().stream()
+                    .map(info -> new TopicPartition(TOPIC, info.partition()))
+                    .toList();
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> ends = admin.listOffsets(partitions.stream()
+                            .collect(Collectors.toMap(Function.identity(), tp -> OffsetSpec.latest())))
+                    .all().get(adminTimeoutMs, TimeUnit.MILLISECONDS);
+
+            long totalLag = 0;
+            Map<TopicPartition, Long> done = new HashMap<>();
+            for (TopicPartition tp : partitions) {
+                OffsetAndMetadata offset = committed.get(tp);
+                if (offset == null) {
+                    continue; // 커밋 전 파티션: 보존된 로그 전체를 lag 으로 세지 않음
+                }
+                totalLag += Math.max(ends.get(tp).offset() - offset.offset(), 0);
+                done.put(tp, offset.offset());
+            }
+            update(totalLag, done, System.currentTimeMillis());
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("Failed to measure coupon-issue consumer lag. groupId: {}, reason: {}", groupId, e.toString());
+        }
+    }
+
+    private void update(long totalLag, Map<TopicPartition, Long> done, long now) {
+        if (!lastCommitted.isEmpty() && now > measuredAt) {
+            long drained = 0;
+            for (Map.Entry<TopicPartition, Long> entry : done.entrySet()) {
+                Long previous = lastCommitted.get(entry.getKey());
+                if (previous != null) {
+                    drained += Math.max(entry.getValue() - previous, 0);
+                }
+            }
+            double rate = drained * 1000.0 / (now - measuredAt);
+            drainRatePerSec = drainRatePerSec == 0 ? rate : RATE_ALPHA * rate + (1 - RATE_ALPHA) * drainRatePerSec;
+        }
+        lastCommitted = done;
+        lag = totalLag;
+        measuredAt = now;
+        acceptedSinceMeasure.reset();
+        log.debug("Coupon-issue backlog measured. lag: {}, drainRate: {}/s, allowed: {}",
+                totalLag, Math.round(drainRatePerSec), allowedBacklog());
+    }
+
+    // drain rate 를 아직 모르면 max-lag 를 상한으로 사용
+    private long allowedBacklog() {
+        if (drainRatePerSec <= 0) {
+            return maxLag;
+        }
+        long byDelay = (long) (drainRatePerSec * maxDelayMs / 1000.0);
+        return Math.min(Math.max(byDelay, minLag), maxLag);
+    }
+
+    // 허용 backlog 의 절반까지 비워질 때까지의 예상 시간
+    private long retryAfterSeconds(long estimatedLag, long allowed) {
+        if (drainRatePerSec <= 0) {
+            return maxRetryAfterSeconds;
+        }
+        long seconds = (long) Math.ceil((estimatedLag - allowed / 2.0) / drainRatePerSec);
+        return Math.min(Math.max(seconds, 1), maxRetryAfterSeconds);
+    }
+
+    private boolean isStale() {
+        return System.currentTimeMillis() - measuredAt > pollIntervalMs * 3;
+    }
+
+    private AdminClient adminClient() {
+        if (adminClient == null) {
+            synchronized (this) {
+                if (adminClient == null) {
+                    Map<String, Object> config = new HashMap<>(kafkaAdmin.getConfigurationProperties());
+                    config.put(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, (int) adminTimeoutMs);
+                    config.put(AdminClientConfig.DEFAULT_API_TIMEOUT_MS_CONFIG, (int) adminTimeoutMs);
+                    adminClient = AdminClient.create(config);
+                }
+            }
+        }
+        return adminClient;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (adminClient != null) {
+            adminClient.close();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.coupon.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 발급 전략별 CouponPolicy row 락 점유 시간 집계
+ * - 락 획득 시점(FOR UPDATE 조회 / 조건부 UPDATE 실행)부터 트랜잭션 종료까지
+ * - PARTITION_OWNER 는 row 락이 없으므로 coupon_issue insert 부터 트랜잭션 종료까지 (비교용)
+ * - 같은 값을 coupon.issue.lock.hold 타이머(strategy, outcome)로도 기록
+ */
+@Component
+public class IssueLockStats {
+
+    private final Map<IssueLockStrategy, Holder> holders = new EnumMap<>(IssueLockStrategy.class);
+
+    public IssueLockStats(MeterRegistry registry) {
+        for (IssueLockStrategy strategy : IssueLockStrategy.values()) {
+            holders.put(strategy, new Holder(
+                    holdTimer(registry, strategy, "commit"),
+                    holdTimer(registry, strategy, "rollback")));
+        }
+    }
+
+    private static Timer holdTimer(MeterRegistry registry, IssueLockStrategy strategy, String outcome) {
+        return Timer.builder("coupon.issue.lock.hold")
+                .description("CouponPolicy row 락 점유 시간")
+                .tags("strategy", strategy.name(), "outcome", outcome)
+                .register(registry);
+    }
+
+    // 트랜잭션 안에서 row 락을 잡은 직후 호출
+    public void lockAcquired(IssueLockStrategy strategy) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        long acquiredAt = System.nanoTime();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                holders.get(strategy).record(System.nanoTime() - acquiredAt, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    public Snapshot snapshot(IssueLockStrategy strategy) {
+        Holder holder = holders.get(strategy);
+        long count = holder.count.sum();
+        return new Snapshot(count, holder.committed.sum(),
+                count == 0 ? 0 : holder.totalNanos.sum() / count, holder.maxNanos.get());
+    }
+
+    public void reset() {
+        holders.values().forEach(Holder::reset);
+    }
+
+    public record Snapshot(long count, long committed, long avgHoldNanos, long maxHoldNanos) {
+    }
+
+    private static final class Holder {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder committed = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final Timer committedTimer;
+        private final Timer rolledBackTimer;
+
+        private Holder(Timer committedTimer, Timer rolledBackTimer) {
+            this.committedTimer = committedTimer;
+            this.rolledBackTimer = rolledBackTimer;
+        }
+
+        private void record(long nanos, boolean commit) {
+            (commit ? committedTimer : rolledBackTimer).record(nanos, TimeUnit.NANOSECONDS);
+            count.increment();
+            if (commit) {
+                committed.increment();
+            }
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        private void reset() {
+            count.reset();
+            committed.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.coupon.service;
+
+/**
+ * Consumer 발급 시 CouponPolicy 수량 정합성 보장 방식
+ */
+public enum IssueLockStrategy {
+    // SELECT ... FOR UPDATE 후 엔티티 수정 (ADR-001)
+    PESSIMISTIC,
+    // UPDATE ... WHERE issued_quantity < total_quantity 한 번으로 확인 + 증가
+    CONDITIONAL_UPDATE,
+    // couponId 파티션을 소유한 Consumer 가 메모리 카운터로 판단 (row 락 없음, 주기적 체크포인트)
+    PARTITION_OWNER
+}
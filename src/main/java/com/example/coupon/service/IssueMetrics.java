@@ -0,0 +1,131 @@
+package com.example.coupon.service;
+
+import com.example.coupon.exception.CouponAlreadyIssuedException;
+import com.example.coupon.exception.CouponIssueThrottledException;
+import com.example.coupon.exception.CouponNotIssuableException;
+import com.example.coupon.exception.CouponSoldOutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 발급 파이프라인 단계별 Micrometer 지표
+ * - coupon.issue.gate     : API 선차단 (outcome = accepted / not_issuable / sold_out / duplicate / throttled / error)
+ * - coupon.issue.publish  : Kafka send → ack (result = ack / error), 재시도/재고 반납 건수, 재시도 버퍼 크기
+ * - coupon.issue.consume  : Consumer 발급 처리 (strategy, outcome)
+ * - coupon.issue.lock.wait / db.write / redis.incr : Consumer 내부 단계
+ * 히스토그램 버킷 설정은 metrics.properties (coupon.issue 접두사) 에서 관리
+ */
+@Component
+public class IssueMetrics {
+
+    public static final String ACCEPTED = "accepted";
+    public static final String ISSUED = "issued";
+    public static final String NOT_ISSUABLE = "not_issuable";
+    public static final String SOLD_OUT = "sold_out";
+    public static final String DUPLICATE = "duplicate";
+    public static final String THROTTLED = "throttled";
+    public static final String ERROR = "error";
+
+    private final MeterRegistry registry;
+    private final Timer lockWait;
+    private final Timer dbWrite;
+    private final Timer redisIncr;
+    private final Timer publishAck;
+    private final Timer publishError;
+    private final Counter publishRetried;
+    private final Counter publishCompensated;
+
+    public IssueMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.lockWait = Timer.builder("coupon.issue.lock.wait")
+                .description("CouponPolicy row 락 대기 (FOR UPDATE 조회 / 조건부 UPDATE)")
+                .register(registry);
+        this.dbWrite = Timer.builder("coupon.issue.db.write")
+                .description("coupon_issue / 발급 수량 쓰기")
+                .register(registry);
+        this.redisIncr = Timer.builder("coupon.issue.redis.incr")
+                .description("발급 성공 후 Redis count INCR")
+                .register(registry);
+        this.publishAck = publishTimer("ack");
+        this.publishError = publishTimer("error");
+        this.publishRetried = Counter.builder("coupon.issue.publish.retried")
+                .description("재시도 버퍼에 들어간 발행 건")
+                .register(registry);
+        this.publishCompensated = Counter.builder("coupon.issue.publish.compensated")
+                .description("발행 포기 후 재고를 반납한 건")
+                .register(registry);
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void gate(Timer.Sample sample, String outcome) {
+        sample.stop(registry.timer("coupon.issue.gate", "outcome", outcome));
+    }
+
+    public void consume(Timer.Sample sample, IssueLockStrategy strategy, String outcome) {
+        sample.stop(registry.timer("coupon.issue.consume", "strategy", strategy.name(), "outcome", outcome));
+    }
+
+    // send 호출부터 브로커 ack(또는 실패)까지
+    public void publish(Timer.Sample sample, CompletableFuture<?> future) {
+        future.whenComplete((result, ex) -> sample.stop(ex == null ? publishAck : publishError));
+    }
+
+    public void publishRetried() {
+        publishRetried.increment();
+    }
+
+    public void publishCompensated() {
+        publishCompensated.increment();
+    }
+
+    public void retryBuffer(Collection<?> buffer) {
+        Gauge.builder("coupon.issue.publish.retry.buffer", buffer, Collection::size)
+                .description("발행 재시도 버퍼 크기")
+                .register(registry);
+    }
+
+    public Timer lockWait() {
+        return lockWait;
+    }
+
+    public Timer dbWrite() {
+        return dbWrite;
+    }
+
+    public Timer redisIncr() {
+        return redisIncr;
+    }
+
+    // 예외 → outcome 태그
+    public static String outcomeOf(Throwable e) {
+        if (e instanceof CouponSoldOutException) {
+            return SOLD_OUT;
+        }
+        if (e instanceof CouponAlreadyIssuedException) {
+            return DUPLICATE;
+        }
+        if (e instanceof CouponIssueThrottledException) {
+            return THROTTLED;
+        }
+        if (e instanceof CouponNotIssuableException) {
+            return NOT_ISSUABLE;
+        }
+        return ERROR;
+    }
+
+    private Timer publishTimer(String result) {
+        return Timer.builder("coupon.issue.publish")
+                .description("Kafka 발행 ack 지연")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.coupon.service;
+
+import com.example.coupon.dto.CouponIssueStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+/**
+ * (쿠폰, 유저) 발급 결과 저장소
+ * - Consumer 가 처리 결과를 Redis coupon:{id}:result:{userId} 에 한 글자 상태로 기록 (ttl 이후 만료)
+ * - 기록과 동시에 이 노드의 SSE 구독자에게 알리고, pub/sub 으로 다른 노드에도 전파
+ * - 결과가 없으면 PENDING
+ * DUPLICATE 는 이미 ISSUED 가 기록돼 있으면 덮어쓰지 않는다 (재전달된 이벤트가 성공 결과를 가리지 않도록).
+ */
+@Slf4j
+@Component
+public class IssueResultStore {
+
+    public static final String CHANNEL = "coupon:issue-result";
+
+    private final StringRedisTemplate redisTemplate;
+    private final IssueResultSubscriptions subscriptions;
+    private final Duration ttl;
+
+    public IssueResultStore(StringRedisTemplate redisTemplate,
+                            IssueResultSubscriptions subscriptions,
+                            @Value("${coupon.result.ttl-seconds:86400}") long ttlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.subscriptions = subscriptions;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    public CouponIssueStatus get(Long couponId, String username) {
+        String code = redisTemplate.opsForValue().get(key(couponId, username));
+        return code == null ? CouponIssueStatus.PENDING : decode(code);
+    }
+
+    /**
+     * 결과 SSE 구독 (이미 결과가 있으면 바로 보내고 종료)
+     * 구독을 먼저 등록한 뒤 조회하므로 그 사이에 기록된 결과도 놓치지 않는다.
+     */
+    public SseEmitter subscribe(Long couponId, String username) {
+        SseEmitter emitter = subscriptions.subscribe(couponId, username);
+        CouponIssueStatus status = get(couponId, username);
+        if (status.isFinal()) {
+            subscriptions.complete(couponId, username, status);
+        }
+        return emitter;
+    }
+
+    public void record(Long couponId, String username, CouponIssueStatus status) {
+        try {
+            String key = key(couponId, username);
+            if (status == CouponIssueStatus.DUPLICATE) {
+                redisTemplate.opsForValue().setIfAbsent(key, encode(status), ttl);
+            } else {
+                redisTemplate.opsForValue().set(key, encode(status), ttl);
+            }
+            broadcast(couponId, username, status);
+        } catch (RuntimeException e) {
+            // 결과 기록 실패가 발급 처리를 실패시키지 않도록 (클라이언트는 PENDING 으로 보게 됨)
+            log.warn("Failed to record issue result. couponId: {}, username: {}, status: {}, reason: {}",
+                    couponId, username, status, e.toString());
+        }
+    }
+
+    /**
+     * 결과가 아직 없을(PENDING) 때만 기록 (SET NX)
+     * 같은 요청이 재전달/재시도로 여러 번 실패로 끝나도 한 번만 true → 게이트 재고 반납 여부 판단에 사용 (GateStockReleaser)
+     * @return 이번 호출이 기록했으면 true (Redis 오류면 false)
+     */
+    public boolean recordIfPending(Long couponId, String username, CouponIssueStatus status) {
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key(couponId, username), encode(status), ttl))) {
+                return false;
+            }
+            broadcast(couponId, username, status);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Failed to record issue result. couponId: {}, username: {}, status: {}, reason: {}",
+                    couponId, username, status, e.toString());
+            return false;
+        }
+    }
+
+    // 트랜잭션 커밋 이후 기록 (롤백되면 기록하지 않음 → 재시도 결과를 기다림)
+    public void recordAfterCommit(Long couponId, String username, CouponIssueStatus status) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(couponId, username, status);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(couponId, username, status);
+            }
+        });
+    }
+
+    // 취소 시 결과 삭제 (다시 발급 요청 가능)
+    public void clear(Long couponId, String username) {
+        redisTemplate.delete(key(couponId, username));
+    }
+
+    // 이 노드의 SSE 구독자 + 다른 노드 (pub/sub)
+    private void broadcast(Long couponId, String username, CouponIssueStatus status) {
+        subscriptions.complete(couponId, username, status);
+        redisTemplate.convertAndSend(CHANNEL, couponId + ":" + status.name() + ":" + username);
+    }
+
+    private static String key(Long couponId, String username) {
+        return CouponRedisKeys.of(couponId).result(username);
+    }
+
+    private static String encode(CouponIssueStatus status) {
+        return String.valueOf(status.ordinal());
+    }
+
+    private static CouponIssueStatus decode(String code) {
+        return CouponIssueStatus.values()[Integer.parseInt(code)];
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.coupon.service;
+
+import com.example.coupon.dto.CouponIssueStatus;
+import com.example.coupon.exception.CouponIssueUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 발급 결과 SSE 구독 (이 노드에 연결된 클라이언트)
+ * - 결과가 기록되면 IssueResultStore 가 로컬로 바로 알리고, 다른 노드는 Redis pub/sub(IssueResultStore.CHANNEL)으로 받음
+ * - 결과 하나를 보내면 스트림 종료 (클라이언트는 재요청하지 않고 기다리기만 하면 됨)
+ * 노드당 동시 구독 수 상한을 넘으면 503 → 클라이언트는 결과 조회 API 폴링으로 대체
+ */
+@Slf4j
+@Component
+public class IssueResultSubscriptions implements MessageListener {
+
+    // "couponId:username" → 대기 중인 SSE
+    private final Map<String, Set<SseEmitter>> waiting = new ConcurrentHashMap<>();
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Value("${coupon.result.sse-timeout-ms:30000}")
+    private long timeoutMs;
+
+    @Value("${coupon.result.sse-max-connections:10000}")
+    private int maxConnections;
+
+    public SseEmitter subscribe(Long couponId, String username) {
+        if (count.incrementAndGet() > maxConnections) {
+            count.decrementAndGet();
+            throw new CouponIssueUnavailableException();
+        }
+        String key = key(couponId, username);
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                count.decrementAndGet();
+                remove(key, emitter);
+            }
+        };
+        emitter.onCompletion(release);
+        emitter.onTimeout(release);
+        emitter.onError(e -> release.run());
+        waiting.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(emitter);
+        return emitter;
+    }
+
+    // 결과 전송 후 스트림 종료
+    public void complete(Long couponId, String username, CouponIssueStatus status) {
+        Set<SseEmitter> emitters = waiting.remove(key(couponId, username));
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("result")
+                        .data(Map.of("couponId", couponId, "status", status)));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    // 메시지: "couponId:STATUS:username"
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            String[] parts = body.split(":", 3);
+            complete(Long.valueOf(parts[0]), parts[2], CouponIssueStatus.valueOf(parts[1]));
+        } catch (RuntimeException e) {
+            log.warn("Invalid issue result message. body: {}", body);
+        }
+    }
+
+    private void remove(String key, SseEmitter emitter) {
+        Set<SseEmitter> emitters = waiting.get(key);
+        if (emitters != null && emitters.remove(emitter) && emitters.isEmpty()) {
+            waiting.remove(key, emitters);
+        }
+    }
+
+    private static String key(Long couponId, String username) {
+        return couponId + ":" + username;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.coupon.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 쿠폰별 발급 요청 유저 중복 필터
+ * - Redis: coupon:{id}:users 집합 (클러스터 전체 기준, 게이트 스크립트가 확인 + SADD 를 원자적으로 수행)
+ * - 로컬: 이 노드에서 이미 통과/거절한 유저 집합 → 같은 노드로 들어오는 재시도는 Redis 호출 없이 거절
+ * 로컬 집합은 쿠폰당 capacity 까지만 채우고, 넘치면 Redis 확인만 사용한다.
+ * 취소 시에는 Redis 에서 제거하고 pub/sub 으로 모든 노드의 로컬 항목을 지운다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IssuedUserFilter implements MessageListener {
+
+    public static final String CHANNEL = "coupon:issued-user-evict";
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final Map<Long, LocalUsers> localUsers = new ConcurrentHashMap<>();
+
+    @Value("${coupon.gate.dedupe-enabled:true}")
+    private boolean enabled;
+
+    @Value("${coupon.gate.dedupe-local-capacity:100000}")
+    private int localCapacity;
+
+    // 게이트 중복 요청 차단 사용 여부
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 이 노드에서 이미 확인된 중복 요청인지 (Redis 호출 없음)
+    public boolean isKnownDuplicate(Long couponId, String username) {
+        LocalUsers users = localUsers.get(couponId);
+        return users != null && users.contains(username);
+    }
+
+    // 게이트 통과(또는 중복 판정) 후 로컬에 기록
+    public void remember(Long couponId, String username) {
+        localUsers.computeIfAbsent(couponId, id -> new LocalUsers()).add(username, localCapacity);
+    }
+
+    /**
+     * Redis 집합에 유저 선점 (게이트 스크립트를 거치지 않는 임대 모드용)
+     * @return false 면 이미 요청한 유저
+     */
+    public boolean claim(Long couponId, String username) {
+        Long added = redisTemplate.opsForSet().add(usersKey(couponId), username);
+        remember(couponId, username);
+        return added == null || added > 0;
+    }
+
+    // 선점 취소 (재고 부족 등으로 발급 요청이 성립하지 않았을 때)
+    public void unclaim(Long couponId, String username) {
+        redisTemplate.opsForSet().remove(usersKey(couponId), username);
+        forget(couponId, username);
+    }
+
+    // 쿠폰 취소 시: Redis + 모든 노드의 로컬 항목 제거
+    public void evict(Long couponId, String username) {
+        redisTemplate.opsForSet().remove(usersKey(couponId), username);
+        forget(couponId, username);
+        redisTemplate.convertAndSend(CHANNEL, couponId + ":" + username);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        try {
+            forget(Long.valueOf(body.substring(0, separator)), body.substring(separator + 1));
+        } catch (RuntimeException e) {
+            log.warn("Invalid issued-user evict message. body: {}", body);
+        }
+    }
+
+    // 이 노드의 로컬 항목만 제거 (Redis 집합을 쓰지 않는 게이트용)
+    public void forget(Long couponId, String username) {
+        LocalUsers users = localUsers.get(couponId);
+        if (users != null) {
+            users.remove(username);
+        }
+    }
+
+    private String usersKey(Long couponId) {
+        return CouponRedisKeys.of(couponId).users();
+    }
+
+    private static final class LocalUsers {
+        private final Set<String> users = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger size = new AtomicInteger();
+
+        private boolean contains(String username) {
+            return users.contains(username);
+        }
+
+        private void add(String username, int capacity) {
+            if (size.get() < capacity && users.add(username)) {
+                size.incrementAndGet();
+            }
+        }
+
+        private void remove(String username) {
+            if (users.remove(username)) {
+                size.decrementAndGet();
+            }
+        }
+    }
+}
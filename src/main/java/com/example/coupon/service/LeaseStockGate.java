@@ -0,0 +1,66 @@
+package com.example.coupon.service;
+
+import com.example.coupon.entity.StockGateType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * 노드 로컬 임대 재고 게이트 (StockLeaseManager)
+ * - 기본은 Redis 중복 체크 없음: 같은 노드 재요청은 로컬 필터(CouponService), 노드 간 중복은 Consumer 의 unique 제약조건
+ *   (임대 모드는 요청마다 Redis 왕복을 없애는 것이 목적이므로)
+ * - coupon.gate.lease.dedupe-enabled=true 면 SADD 로 선점하고 재고가 없으면 되돌림 → 요청마다 핫 쿠폰 슬롯에 Redis 왕복 1회
+ * - 반납은 Redis 쿠폰 해시의 stock 으로 (다음 임대 때 어느 노드든 다시 가져감, 만료/정리된 해시는 되살리지 않음)
+ */
+@Component
+@RequiredArgsConstructor
+public class LeaseStockGate implements StockGate {
+
+    private final StockLeaseManager stockLeaseManager;
+    private final IssuedUserFilter issuedUserFilter;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisScript<Long> couponStockReleaseScript;
+
+    @Value("${coupon.gate.lease.dedupe-enabled:false}")
+    private boolean redisDedupe;
+
+    @Override
+    public StockGateType type() {
+        return StockGateType.LEASE;
+    }
+
+    @Override
+    public Result tryAcquire(Long couponId, String userId) {
+        boolean dedupe = redisDedupe && issuedUserFilter.isEnabled();
+        if (dedupe && !issuedUserFilter.claim(couponId, userId)) {
+            return Result.DUPLICATE;
+        }
+        if (!stockLeaseManager.tryAcquire(couponId)) {
+            if (dedupe) {
+                issuedUserFilter.unclaim(couponId, userId);
+            }
+            return Result.SOLD_OUT;
+        }
+        return Result.ACQUIRED;
+    }
+
+    @Override
+    public void release(Long couponId, String userId) {
+        redisTemplate.execute(couponStockReleaseScript, CouponRedisKeys.of(couponId).hashKeys(), "1");
+        issuedUserFilter.evict(couponId, userId);
+    }
+
+    // Redis 에 남은 재고 + 이 노드 임대분 (다른 노드 임대분은 포함되지 않음)
+    @Override
+    public long remaining(Long couponId) {
+        Object stock = redisTemplate.opsForHash().get(CouponRedisKeys.of(couponId).hash(), CouponRedisKeys.STOCK);
+        return (stock == null ? 0 : Math.max(Long.parseLong((String) stock), 0)) + stockLeaseManager.localAvailable(couponId);
+    }
+
+    @Override
+    public boolean hasLocalStock(Long couponId) {
+        return stockLeaseManager.localAvailable(couponId) > 0;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.coupon.service;
+
+import com.example.coupon.exception.LoginThrottledException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로그인(BCrypt 비교) 동시 실행 수 제한
+ * - BCrypt 는 요청당 수십 ms CPU 를 쓰므로, 오픈 직전 로그인이 몰리면 발급 API 까지 CPU 를 뺏긴다
+ * - max-concurrent 개까지만 동시에 인증하고, acquire-timeout 안에 자리가 나지 않으면 429 + Retry-After
+ * max-concurrent 가 0 이하면 CPU 코어 수의 절반 (최소 1)
+ */
+@Slf4j
+@Component
+public class LoginConcurrencyLimiter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+    private final long retryAfterSeconds;
+
+    public LoginConcurrencyLimiter(
+            @Value("${jwt.login.max-concurrent:0}") int maxConcurrent,
+            @Value("${jwt.login.acquire-timeout-ms:200}") long acquireTimeoutMs,
+            @Value("${jwt.login.retry-after-seconds:1}") long retryAfterSeconds
+    ) {
+        int limit = maxConcurrent > 0 ? maxConcurrent : Math.max(Runtime.getRuntime().availableProcessors() / 2, 1);
+        this.permits = new Semaphore(limit);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+        log.info("Login concurrency limit: {}", limit);
+    }
+
+    // 자리가 나면 반환, 아니면 LoginThrottledException (반드시 release 와 짝으로 호출)
+    public void acquire() {
+        try {
+            if (permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new LoginThrottledException(retryAfterSeconds);
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
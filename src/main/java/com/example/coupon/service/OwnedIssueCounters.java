@@ -0,0 +1,176 @@
+package com.example.coupon.service;
+
+import com.example.coupon.entity.CouponPolicy;
+import com.example.coupon.repository.CouponIssueRepository;
+import com.example.coupon.repository.CouponPolicyRepository;
+import com.example.coupon.repository.CouponRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 파티션 소유 Consumer 가 메모리에 들고 있는 쿠폰별 발급 카운터 (IssueLockStrategy.PARTITION_OWNER)
+ * - key = couponId 로 발행되므로 한 쿠폰의 이벤트는 한 파티션 → 한 Consumer 스레드만 처리 (단일 writer)
+ * - 카운터는 coupon_issue row 수로 로드하고, 주기적으로 coupon_policy.issued_quantity 에 체크포인트
+ * - 리밸런스로 파티션을 잃으면 해당 카운터를 버리고, 다시 받으면 DB 에서 새로 로드
+ * 정책 하나를 여러 쿠폰이 공유하거나 분산 슬롯 정책이면 단일 writer 가 성립하지 않으므로 대상에서 제외(null 반환)한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OwnedIssueCounters {
+
+    private final CouponRepository couponRepository;
+    private final CouponPolicyRepository couponPolicyRepository;
+    private final CouponIssueRepository couponIssueRepository;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    // 여러 쿠폰이 공유하는 정책의 쿠폰 (단일 writer 불가)
+    private final Set<Long> sharedPolicyCoupons = ConcurrentHashMap.newKeySet();
+
+    @Value("${coupon.consumer.checkpoint-interval:100}")
+    private int checkpointInterval;
+
+    /**
+     * 소유 카운터 조회 (없으면 DB 에서 로드)
+     * @return null 이면 단일 writer 모드 대상이 아님
+     */
+    public Counter get(Long couponId, int partition) {
+        if (sharedPolicyCoupons.contains(couponId)) {
+            return null;
+        }
+        Counter counter = counters.get(couponId);
+        if (counter == null || counter.partition != partition) {
+            counter = load(couponId, partition);
+            if (counter == null) {
+                return null;
+            }
+            counters.put(couponId, counter);
+        }
+        return counter;
+    }
+
+    /**
+     * 발급 트랜잭션 안에서 호출 (소유 스레드에서만 호출됨)
+     * 트랜잭션이 롤백되면 카운터도 되돌린다.
+     */
+    public void issued(Counter counter) {
+        counter.issued++;
+        counter.sinceCheckpoint++;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    counter.issued--;
+                }
+            }
+        });
+        if (counter.sinceCheckpoint >= checkpointInterval) {
+            checkpoint(counter);
+        }
+    }
+
+    /**
+     * coupon_issue row 수로 카운터를 다시 맞추고 정책 row 에 기록
+     * 취소(row 삭제)도 여기서 반영된다.
+     */
+    public void checkpoint(Counter counter) {
+        counter.issued = (int) couponIssueRepository.countByCouponId(counter.couponId);
+        counter.sinceCheckpoint = 0;
+        couponPolicyRepository.updateIssuedQuantity(counter.policyId, counter.issued);
+        couponPolicyRepository.findById(counter.policyId).ifPresent(counter::refresh);
+        log.debug("Owned issue counter checkpointed. couponId: {}, issued: {}", counter.couponId, counter.issued);
+    }
+
+    // 리밸런스: 잃은 파티션의 카운터는 체크포인트 후 폐기 (재시도 토픽 파티션은 무관)
+    public void revoke(Collection<TopicPartition> partitions) {
+        Set<Integer> revoked = partitions.stream()
+                .filter(tp -> CouponIssuePublisher.TOPIC.equals(tp.topic()))
+                .map(TopicPartition::partition)
+                .collect(Collectors.toSet());
+        if (revoked.isEmpty()) {
+            return;
+        }
+        counters.values().removeIf(counter -> {
+            if (!revoked.contains(counter.partition)) {
+                return false;
+            }
+            try {
+                checkpoint(counter);
+            } catch (RuntimeException e) {
+                log.warn("Failed to checkpoint owned issue counter on revoke. couponId: {}", counter.couponId, e);
+            }
+            return true;
+        });
+    }
+
+    private Counter load(Long couponId, int partition) {
+        CouponPolicy policy = couponPolicyRepository.findByCouponId(couponId)
+                .orElseThrow(() -> new RuntimeException("Coupon not found: " + couponId));
+        if (policy.isStriped() || couponRepository.countByPolicyId(policy.getId()) > 1) {
+            log.info("Coupon policy is striped or shared by multiple coupons, owner mode disabled. couponId: {}, policyId: {}",
+                    couponId, policy.getId());
+            sharedPolicyCoupons.add(couponId);
+            return null;
+        }
+
+        Counter counter = new Counter(couponId, policy.getId(), partition);
+        counter.refresh(policy);
+        counter.issued = (int) couponIssueRepository.countByCouponId(couponId);
+        log.info("Owned issue counter loaded. couponId: {}, partition: {}, issued: {}, total: {}",
+                couponId, partition, counter.issued, counter.totalQuantity);
+        return counter;
+    }
+
+    public static final class Counter {
+        private final Long couponId;
+        private final Long policyId;
+        private final int partition;
+        private int totalQuantity;
+        private LocalDateTime startAt;
+        private LocalDateTime endAt;
+        private boolean active;
+        private int issued;
+        private int sinceCheckpoint;
+
+        private Counter(Long couponId, Long policyId, int partition) {
+            this.couponId = couponId;
+            this.policyId = policyId;
+            this.partition = partition;
+        }
+
+        private void refresh(CouponPolicy policy) {
+            this.totalQuantity = policy.getTotalQuantity();
+            this.startAt = policy.getStartAt();
+            this.endAt = policy.getEndAt();
+            this.active = policy.isActive();
+        }
+
+        public boolean isIssuable(LocalDateTime now) {
+            return active && !now.isBefore(startAt) && !now.isAfter(endAt);
+        }
+
+        public boolean canIssue() {
+            return issued < totalQuantity;
+        }
+
+        public int getIssued() {
+            return issued;
+        }
+
+        public int getTotalQuantity() {
+            return totalQuantity;
+        }
+    }
+}
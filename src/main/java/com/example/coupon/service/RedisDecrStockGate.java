@@ -0,0 +1,89 @@
+package com.example.coupon.service;
+
+import com.example.coupon.entity.StockGateType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis DECR 게이트 (ADR-002 방식)
+ * - 중복 체크는 SADD 선점, 재고는 coupon-stock-decr.lua 로 stock 초기화(없을 때만) + 차감을 원자적으로 수행
+ * - 차감하면 같은 스크립트에서 이전 요청의 발급 결과 키도 삭제
+ * - 재고가 0 이면 차감하지 않으므로 보정용 INCR 이 없고, 키가 만료/삭제된 뒤에도 다음 요청이 limit 으로 다시 세팅
+ * - 중복 체크가 스크립트 밖이라 요청당 라운드트립 2회 (저볼륨 쿠폰용)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RedisDecrStockGate implements StockGate {
+
+    private static final long DECR_SOLD_OUT = -1L;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisScript<Long> couponStockDecrScript;
+    private final RedisScript<Long> couponStockReleaseScript;
+    private final CouponMetadataCache couponMetadataCache;
+    private final IssuedUserFilter issuedUserFilter;
+
+    @Override
+    public StockGateType type() {
+        return StockGateType.REDIS_DECR;
+    }
+
+    @Override
+    public Result tryAcquire(Long couponId, String userId) {
+        boolean dedupe = issuedUserFilter.isEnabled();
+        if (dedupe && !issuedUserFilter.claim(couponId, userId)) {
+            return Result.DUPLICATE;
+        }
+
+        Long remain;
+        try {
+            remain = redisTemplate.execute(couponStockDecrScript, CouponRedisKeys.of(couponId).hashKeys(userId),
+                    String.valueOf(loadCouponLimit(couponId)));
+        } catch (RuntimeException e) {
+            unclaim(dedupe, couponId, userId);
+            throw e;
+        }
+
+        // 결과를 알 수 없으면 차감 여부도 알 수 없으므로 재고는 건드리지 않는다
+        if (remain == null) {
+            unclaim(dedupe, couponId, userId);
+            throw new IllegalStateException("Coupon stock decrement failed. couponId=" + couponId);
+        }
+        if (remain == DECR_SOLD_OUT) {
+            unclaim(dedupe, couponId, userId);
+            return Result.SOLD_OUT;
+        }
+        return Result.ACQUIRED;
+    }
+
+    @Override
+    public boolean clearsIssueResult() {
+        return true;
+    }
+
+    @Override
+    public void release(Long couponId, String userId) {
+        redisTemplate.execute(couponStockReleaseScript, CouponRedisKeys.of(couponId).hashKeys(), "1");
+        issuedUserFilter.evict(couponId, userId);
+    }
+
+    @Override
+    public long remaining(Long couponId) {
+        Object stock = redisTemplate.opsForHash().get(CouponRedisKeys.of(couponId).hash(), CouponRedisKeys.STOCK);
+        return stock == null ? loadCouponLimit(couponId) : Math.max(Long.parseLong((String) stock), 0);
+    }
+
+    private void unclaim(boolean dedupe, Long couponId, String userId) {
+        if (dedupe) {
+            issuedUserFilter.unclaim(couponId, userId);
+        }
+    }
+
+    private int loadCouponLimit(Long couponId) {
+        return couponMetadataCache.get(couponId).totalQuantity();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.coupon.service;
+
+import com.example.coupon.entity.StockGateType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Redis 게이트 스크립트
+ * - Lua 스크립트 한 번으로 stock 초기화(limit 기준) + 중복 체크 + 재고 차감을 원자적으로 수행
+ * - 보정용 INCR 없이 선차단
+ * - 수락하면 같은 스크립트에서 이전 요청의 발급 결과 키도 삭제 (같은 {id} 슬롯)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RedisScriptStockGate implements StockGate {
+
+    // 게이트 스크립트 반환 코드
+    private static final long GATE_SOLD_OUT = -1L;
+    private static final long GATE_DUPLICATE = -2L;
+    private static final long GATE_NOT_INITIALIZED = -3L;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisScript<Long> couponIssueGateScript;
+    private final RedisScript<Long> couponStockReleaseScript;
+    private final CouponMetadataCache couponMetadataCache;
+    private final IssuedUserFilter issuedUserFilter;
+
+    @Override
+    public StockGateType type() {
+        return StockGateType.REDIS_SCRIPT;
+    }
+
+    @Override
+    public Result tryAcquire(Long couponId, String userId) {
+        List<String> keys = CouponRedisKeys.of(couponId).gateKeys(userId);
+        String dedupeMember = issuedUserFilter.isEnabled() ? userId : "";
+
+        // 1. 대부분의 요청은 여기서 한 번의 라운드트립으로 끝남
+        Long remain = redisTemplate.execute(couponIssueGateScript, keys, dedupeMember, "");
+
+        // 2. stock/limit 모두 없는 최초 요청만 DB에서 limit 조회 후 재호출
+        if (remain != null && remain == GATE_NOT_INITIALIZED) {
+            int limit = loadCouponLimit(couponId); // CouponPolicy.totalQuantity 기반
+            remain = redisTemplate.execute(couponIssueGateScript, keys, dedupeMember, String.valueOf(limit));
+        }
+
+        if (remain == null || remain == GATE_NOT_INITIALIZED) {
+            throw new IllegalStateException("Coupon stock gate not initialized. couponId=" + couponId);
+        }
+        if (remain == GATE_SOLD_OUT) {
+            return Result.SOLD_OUT;
+        }
+        if (remain == GATE_DUPLICATE) {
+            return Result.DUPLICATE;
+        }
+        return Result.ACQUIRED;
+    }
+
+    @Override
+    public boolean clearsIssueResult() {
+        return true;
+    }
+
+    @Override
+    public void release(Long couponId, String userId) {
+        redisTemplate.execute(couponStockReleaseScript, CouponRedisKeys.of(couponId).hashKeys(), "1");
+        issuedUserFilter.evict(couponId, userId);
+    }
+
+    @Override
+    public long remaining(Long couponId) {
+        Object stock = redisTemplate.opsForHash().get(CouponRedisKeys.of(couponId).hash(), CouponRedisKeys.STOCK);
+        return stock == null ? loadCouponLimit(couponId) : Math.max(Long.parseLong((String) stock), 0);
+    }
+
+    /**
+     * 쿠폰별 발급 한도(limit) 조회
+     * - Redis stock/limit 필드가 모두 없을 때만 호출됨 (Redis 세팅은 게이트 스크립트가 수행)
+     */
+    private int loadCouponLimit(Long couponId) {
+        return couponMetadataCache.get(couponId).totalQuantity();
+    }
+}
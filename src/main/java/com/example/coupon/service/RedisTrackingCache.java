@@ -0,0 +1,229 @@
+package com.example.coupon.service;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.support.caching.CacheAccessor;
+import io.lettuce.core.support.caching.CacheFrontend;
+import io.lettuce.core.support.caching.ClientSideCaching;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 자주 읽고 드물게 바뀌는 문자열 키의 RESP3 client-side caching (CLIENT TRACKING)
+ * - 전용 RESP3 연결로 읽은 값을 로컬 맵에 두고, 키가 바뀌면 서버가 보내는 invalidate push 로 즉시 제거
+ * - 전용 연결은 공유 커넥션 팩토리와 같은 설정(host/port/database/계정/SSL/타임아웃/소켓 옵션)으로 만든다
+ * - 연결은 첫 조회 때 만들고, 실패하면 retry-ms 뒤에 다시 시도 (기동 시 Redis 가 없어도 복구되면 캐싱 재개)
+ * - 연결이 끊기면 그동안의 invalidate 를 못 받으므로 로컬 값을 비우고, 다음 조회 때 tracking 을 다시 켠다
+ * - 클러스터/센티넬 모드(Lettuce 미지원), inmemory 프로필, 비활성화 시, 연결 전/장애 중에는 StringRedisTemplate 으로 바로 조회
+ * 요청마다 바뀌는 키(재고/카운터)에 쓰면 invalidate 만 늘어나므로 버전 키 같은 read-mostly 키에만 사용한다.
+ */
+@Slf4j
+@Component
+public class RedisTrackingCache implements DisposableBean {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ClientResources clientResources;
+    private final int maxSize;
+    private final long retryMs;
+    private final Map<String, String> local = new ConcurrentHashMap<>();
+
+    // 전용 연결 설정 (null 이면 client-side caching 을 쓰지 않음)
+    private final RedisURI redisUri;
+    private final ClientOptions clientOptions;
+
+    private RedisClient client;
+    private volatile CacheFrontend<String, String> frontend;
+    private StatefulRedisConnection<String, String> connection;
+    // 재연결 후 tracking 을 다시 켜기 전까지 false
+    private volatile boolean tracking;
+    // 다음 연결 시도 가능 시각(ms)
+    private volatile long nextConnectAtMs;
+    private volatile boolean closed;
+
+    public RedisTrackingCache(StringRedisTemplate redisTemplate,
+                              RedisConnectionFactory redisConnectionFactory,
+                              ClientResources lettuceClientResources,
+                              @Value("${coupon.redis.client-cache.enabled:true}") boolean enabled,
+                              @Value("${coupon.redis.client-cache.max-size:1000}") int maxSize,
+                              @Value("${coupon.redis.client-cache.retry-ms:5000}") long retryMs) {
+        this.redisTemplate = redisTemplate;
+        this.clientResources = lettuceClientResources;
+        this.maxSize = maxSize;
+        this.retryMs = retryMs;
+        if (enabled && redisConnectionFactory instanceof LettuceConnectionFactory factory
+                && !factory.isClusterAware() && !factory.isRedisSentinelAware()) {
+            LettuceClientConfiguration clientConfiguration = factory.getClientConfiguration();
+            this.redisUri = redisUri(factory.getStandaloneConfiguration(), clientConfiguration);
+            this.clientOptions = clientConfiguration.getClientOptions()
+                    .map(ClientOptions::mutate)
+                    .orElseGet(ClientOptions::builder)
+                    .protocolVersion(ProtocolVersion.RESP3)
+                    .build();
+        } else {
+            this.redisUri = null;
+            this.clientOptions = null;
+        }
+    }
+
+    /**
+     * 로컬에 있으면 로컬 값, 없으면 Redis GET 후 로컬에 저장 (없는 키는 저장하지 않음)
+     */
+    public String get(String key) {
+        CacheFrontend<String, String> cacheFrontend = frontend;
+        if (cacheFrontend == null) {
+            cacheFrontend = tryConnect();
+        }
+        if (cacheFrontend == null) {
+            return redisTemplate.opsForValue().get(key);
+        }
+        try {
+            if (!tracking) {
+                retrack();
+            }
+            return cacheFrontend.get(key);
+        } catch (RuntimeException e) {
+            // 전용 연결 장애 시 공유 연결로 조회 (다음 조회 때 tracking 재시도)
+            tracking = false;
+            local.clear();
+            log.debug("Tracked read failed, falling back to shared connection. key: {}, reason: {}", key, e.toString());
+            return redisTemplate.opsForValue().get(key);
+        }
+    }
+
+    /**
+     * 지금 조회가 tracking 으로 로컬에서 처리되는지 (false 면 매 조회가 Redis 왕복)
+     */
+    public boolean isTracking() {
+        return frontend != null && tracking;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        closed = true;
+        if (frontend != null) {
+            frontend.close();
+            frontend = null;
+        }
+        if (client != null) {
+            client.shutdown();
+            client = null;
+        }
+    }
+
+    // 연결 시도는 한 스레드만, retry-ms 간격으로 (그 사이 조회는 공유 연결로)
+    private CacheFrontend<String, String> tryConnect() {
+        if (redisUri == null || closed || System.currentTimeMillis() < nextConnectAtMs) {
+            return null;
+        }
+        synchronized (this) {
+            if (frontend != null || closed || System.currentTimeMillis() < nextConnectAtMs) {
+                return frontend;
+            }
+            nextConnectAtMs = System.currentTimeMillis() + retryMs;
+            connect();
+            return frontend;
+        }
+    }
+
+    // synchronized(this) 안에서만 호출
+    private void connect() {
+        try {
+            client = RedisClient.create(clientResources, redisUri);
+            client.setOptions(clientOptions);
+            // 끊긴 동안의 invalidate 는 유실되므로 로컬 값 폐기 (이벤트 루프 스레드라 Redis 호출은 하지 않음)
+            client.addListener(new RedisConnectionStateListener() {
+                @Override
+                public void onRedisDisconnected(RedisChannelHandler<?, ?> handler) {
+                    tracking = false;
+                    local.clear();
+                }
+            });
+            connection = client.connect();
+            local.clear();
+            tracking = true;
+            frontend = ClientSideCaching.enable(new BoundedAccessor(), connection, TrackingArgs.Builder.enabled());
+            log.info("Redis client-side caching enabled. host: {}, port: {}, database: {}",
+                    redisUri.getHost(), redisUri.getPort(), redisUri.getDatabase());
+        } catch (RuntimeException e) {
+            // RESP3/CLIENT TRACKING 미지원 (Redis 6 미만) 이거나 연결 실패 → retry-ms 동안 공유 연결로만 조회
+            log.warn("Redis client-side caching unavailable, retrying in {}ms. reason: {}", retryMs, e.toString());
+            frontend = null;
+            tracking = false;
+            if (client != null) {
+                client.shutdown();
+                client = null;
+            }
+        }
+    }
+
+    // tracking 을 먼저 켠 뒤 비워야 그 사이에 저장된 값이 남지 않는다
+    private synchronized void retrack() {
+        if (tracking) {
+            return;
+        }
+        connection.sync().clientTracking(TrackingArgs.Builder.enabled());
+        local.clear();
+        tracking = true;
+    }
+
+    private static RedisURI redisUri(RedisStandaloneConfiguration standalone, LettuceClientConfiguration clientConfiguration) {
+        RedisURI.Builder builder = RedisURI.builder()
+                .withHost(standalone.getHostName())
+                .withPort(standalone.getPort())
+                .withDatabase(standalone.getDatabase())
+                .withSsl(clientConfiguration.isUseSsl())
+                .withStartTls(clientConfiguration.isStartTls())
+                .withTimeout(clientConfiguration.getCommandTimeout());
+        if (clientConfiguration.isUseSsl()) {
+            builder.withVerifyPeer(clientConfiguration.getVerifyMode());
+        }
+        standalone.getPassword().toOptional().ifPresent(password -> {
+            if (standalone.getUsername() != null) {
+                builder.withAuthentication(standalone.getUsername(), new String(password));
+            } else {
+                builder.withPassword(password);
+            }
+        });
+        clientConfiguration.getClientName().ifPresent(builder::withClientName);
+        return builder.build();
+    }
+
+    // 상한을 넘으면 비우고 다시 채움 (read-mostly 키만 담으므로 드묾)
+    private class BoundedAccessor implements CacheAccessor<String, String> {
+
+        @Override
+        public String get(String key) {
+            return local.get(key);
+        }
+
+        @Override
+        public void put(String key, String value) {
+            if (local.size() >= maxSize) {
+                local.clear();
+            }
+            local.put(key, value);
+        }
+
+        @Override
+        public void evict(String key) {
+            local.remove(key);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.coupon.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 쿠폰별 SOLD OUT 플래그 (JVM 로컬 near-cache)
+ * - 게이트에서 최초로 재고 소진을 확인한 노드가 플래그를 세우고 Redis pub/sub 으로 다른 노드에 전파
+ * - 재고가 복구되면(취소, 임대분 반납) 해제 메시지를 전파
+ * - 매진 이후 요청은 Redis 호출 없이 map 조회만으로 거절
+ * 노드 간 메시지 순서가 뒤바뀌어도 오래 틀리지 않도록 플래그는 ttl 이후 만료되고, 다음 요청이 게이트에서 다시 확인한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SoldOutCache implements MessageListener {
+
+    public static final String CHANNEL = "coupon:sold-out";
+    private static final String SOLD_OUT_PREFIX = "S:";
+    private static final String RESTOCK_PREFIX = "R:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    // couponId → 매진 확인 시각(ms)
+    private final Map<Long, Long> soldOut = new ConcurrentHashMap<>();
+
+    @Value("${coupon.sold-out-cache.ttl-ms:3000}")
+    private long ttlMs;
+
+    public boolean isSoldOut(Long couponId) {
+        Long markedAt = soldOut.get(couponId);
+        if (markedAt == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - markedAt > ttlMs) {
+            soldOut.remove(couponId, markedAt);
+            return false;
+        }
+        return true;
+    }
+
+    // 게이트에서 재고 소진 확인 시 호출
+    public void markSoldOut(Long couponId) {
+        if (soldOut.put(couponId, System.currentTimeMillis()) == null) {
+            redisTemplate.convertAndSend(CHANNEL, SOLD_OUT_PREFIX + couponId);
+        }
+    }
+
+    // 재고 복구 시 호출
+    public void clear(Long couponId) {
+        soldOut.remove(couponId);
+        redisTemplate.convertAndSend(CHANNEL, RESTOCK_PREFIX + couponId);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            Long couponId = Long.valueOf(body.substring(2));
+            if (body.startsWith(SOLD_OUT_PREFIX)) {
+                soldOut.putIfAbsent(couponId, System.currentTimeMillis());
+            } else if (body.startsWith(RESTOCK_PREFIX)) {
+                soldOut.remove(couponId);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Invalid sold-out message. body: {}", body);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.coupon.service;
+
+import com.example.coupon.entity.StockGateType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 분할 재고 게이트 (대형 쿠폰 핫 키 분산)
+ * - 총 수량을 shards 개 샤드 해시(coupon:{id:sN})로 나눠 담고, 샤드마다 hash tag 가 달라 클러스터에서 서로 다른 슬롯/노드에 놓인다
+ * - 유저는 userId 해시로 정한 홈 샤드에서 먼저 차감 (중복 체크도 홈 샤드 유저 집합에서)
+ * - 홈 샤드가 비면 다음 샤드부터 차례로 형제 샤드에서 차감, 모두 비면 SOLD OUT
+ * 샤드 몫의 합 = 총 수량이고 각 차감은 샤드 재고가 0 보다 클 때만 일어나므로 전체 초과 선점은 없다.
+ * 게이트 처리량은 Redis 노드 수만큼 늘어나지만, 거의 소진된 구간에서는 형제 샤드 확인으로 라운드트립이 늘어난다.
+ * 그래서 비어 있음을 확인한 샤드는 노드 로컬에 empty-ttl-ms 동안 기억해 형제 샤드 확인에서 건너뛰고,
+ * 모든 샤드가 비어 있으면 Redis 호출 없이 SOLD OUT (SOLD OUT 플래그가 전파되기 전의 요청도 라운드트립 1회 이하).
+ * 발급 기간 중 샤드 수를 바꾸면 몫이 달라지므로 바꾸지 않는다는 전제.
+ */
+@Component
+public class SplitStockGate implements StockGate {
+
+    private static final long SHARD_EMPTY = -1L;
+    private static final long SHARD_DUPLICATE = -2L;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisScript<Long> couponSplitGateScript;
+    private final RedisScript<Long> couponStockReleaseScript;
+    private final CouponMetadataCache couponMetadataCache;
+    private final IssuedUserFilter issuedUserFilter;
+    private final int shards;
+    private final long emptyTtlMs;
+
+    // couponId → 샤드별 비어 있음을 확인한 시각(ms, 0 이면 모름)
+    private final Map<Long, AtomicLongArray> emptyShards = new ConcurrentHashMap<>();
+
+    public SplitStockGate(StringRedisTemplate redisTemplate,
+                          RedisScript<Long> couponSplitGateScript,
+                          RedisScript<Long> couponStockReleaseScript,
+                          CouponMetadataCache couponMetadataCache,
+                          IssuedUserFilter issuedUserFilter,
+                          @Value("${coupon.gate.split.shards:8}") int shards,
+                          @Value("${coupon.gate.split.empty-ttl-ms:1000}") long emptyTtlMs) {
+        this.redisTemplate = redisTemplate;
+        this.couponSplitGateScript = couponSplitGateScript;
+        this.couponStockReleaseScript = couponStockReleaseScript;
+        this.couponMetadataCache = couponMetadataCache;
+        this.issuedUserFilter = issuedUserFilter;
+        this.shards = Math.max(shards, 1);
+        this.emptyTtlMs = emptyTtlMs;
+    }
+
+    @Override
+    public StockGateType type() {
+        return StockGateType.REDIS_SPLIT;
+    }
+
+    @Override
+    public Result tryAcquire(Long couponId, String userId) {
+        long now = System.currentTimeMillis();
+        AtomicLongArray empty = emptyShards.computeIfAbsent(couponId, id -> new AtomicLongArray(shards));
+        if (allEmpty(empty, now)) {
+            return Result.SOLD_OUT;
+        }
+
+        CouponRedisKeys keys = CouponRedisKeys.of(couponId);
+        int total = couponMetadataCache.get(couponId).totalQuantity();
+        int home = homeShard(userId);
+        String member = issuedUserFilter.isEnabled() ? userId : "";
+
+        // 1. 홈 샤드: 중복 체크 + 차감 (비어 있다고 알고 있어도 중복 체크를 위해 호출)
+        long remain = acquire(keys, home, member, total);
+        if (remain == SHARD_DUPLICATE) {
+            return Result.DUPLICATE;
+        }
+        if (remain != SHARD_EMPTY) {
+            return Result.ACQUIRED;
+        }
+        empty.set(home, now);
+
+        // 2. 홈 샤드가 비었으면 형제 샤드에서 차감 (중복 체크는 홈 샤드에서 이미 선점, 비어 있다고 확인한 샤드는 건너뜀)
+        for (int i = 1; i < shards; i++) {
+            int shard = (home + i) % shards;
+            if (isEmpty(empty, shard, now)) {
+                continue;
+            }
+            if (acquire(keys, shard, "", total) != SHARD_EMPTY) {
+                return Result.ACQUIRED;
+            }
+            empty.set(shard, now);
+        }
+
+        // 3. 모든 샤드 소진 → 홈 샤드 선점 취소
+        if (!member.isEmpty()) {
+            redisTemplate.opsForSet().remove(keys.shardKeys(home, shards).get(1), member);
+        }
+        return Result.SOLD_OUT;
+    }
+
+    // 반납은 홈 샤드로 (전체 합만 맞으면 되므로 어느 샤드든 무방)
+    @Override
+    public void release(Long couponId, String userId) {
+        List<String> shardKeys = CouponRedisKeys.of(couponId).shardKeys(homeShard(userId), shards);
+        redisTemplate.execute(couponStockReleaseScript, List.of(shardKeys.get(0)), "1");
+        redisTemplate.opsForSet().remove(shardKeys.get(1), userId);
+        emptyShards.remove(couponId);
+        issuedUserFilter.evict(couponId, userId);
+    }
+
+    // 샤드 재고 합 (아직 초기화되지 않은 샤드는 몫 그대로), 샤드 조회는 파이프라인 한 번
+    @Override
+    public long remaining(Long couponId) {
+        CouponRedisKeys keys = CouponRedisKeys.of(couponId);
+        int total = couponMetadataCache.get(couponId).totalQuantity();
+        List<Object> stocks = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                // 콜백에 넘어온 operations 로 보내야 같은 파이프라인 연결에 쌓인다
+                HashOperations<String, Object, Object> hashOps = ((RedisOperations<String, String>) operations).opsForHash();
+                for (int i = 0; i < shards; i++) {
+                    hashOps.get(keys.shardKeys(i, shards).get(0), CouponRedisKeys.STOCK);
+                }
+                return null;
+            }
+        });
+        long remaining = 0;
+        for (int i = 0; i < shards; i++) {
+            Object stock = stocks.get(i);
+            remaining += stock == null ? shareOf(total, i) : Math.max(Long.parseLong((String) stock), 0);
+        }
+        return remaining;
+    }
+
+    // 모든 샤드의 해시 + 유저 집합 키 (종료 후 만료 처리용)
+    public List<String> keysOf(Long couponId) {
+        CouponRedisKeys keys = CouponRedisKeys.of(couponId);
+        List<String> all = new ArrayList<>(shards * 2);
+        for (int i = 0; i < shards; i++) {
+            all.addAll(keys.shardKeys(i, shards));
+        }
+        return all;
+    }
+
+    private long acquire(CouponRedisKeys keys, int shard, String member, int total) {
+        Long remain = redisTemplate.execute(couponSplitGateScript, keys.shardKeys(shard, shards),
+                member, String.valueOf(shareOf(total, shard)));
+        if (remain == null) {
+            throw new IllegalStateException("Coupon split stock gate failed. shard=" + shard);
+        }
+        return remain;
+    }
+
+    private boolean isEmpty(AtomicLongArray empty, int shard, long now) {
+        long checkedAt = empty.get(shard);
+        return checkedAt != 0 && now - checkedAt <= emptyTtlMs;
+    }
+
+    private boolean allEmpty(AtomicLongArray empty, long now) {
+        for (int i = 0; i < shards; i++) {
+            if (!isEmpty(empty, i, now)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int homeShard(String userId) {
+        return Math.floorMod(userId.hashCode(), shards);
+    }
+
+    // 샤드 몫: 나머지는 앞쪽 샤드에 하나씩 (합 = total)
+    private int shareOf(int total, int shard) {
+        return total / shards + (shard < total % shards ? 1 : 0);
+    }
+}
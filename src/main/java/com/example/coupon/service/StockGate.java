@@ -0,0 +1,45 @@
+package com.example.coupon.service;
+
+import com.example.coupon.entity.StockGateType;
+
+/**
+ * 발급 요청 재고 선차단 SPI
+ * - 구현별로 재고 저장 위치가 다르므로, 한 쿠폰은 항상 같은 구현으로만 차감/복구해야 한다
+ * - 구현 선택은 StockGateRegistry (CouponPolicy.stockGate)
+ */
+public interface StockGate {
+
+    enum Result {
+        ACQUIRED,
+        SOLD_OUT,
+        DUPLICATE
+    }
+
+    StockGateType type();
+
+    /**
+     * 재고 1개 선점 (중복 체크가 켜져 있으면 같은 유저의 두 번째 요청은 DUPLICATE)
+     */
+    Result tryAcquire(Long couponId, String userId);
+
+    /**
+     * 선점한 재고 반납 (발급 취소) - 유저도 중복 체크 대상에서 제거
+     */
+    void release(Long couponId, String userId);
+
+    // 게이트 기준 남은 재고
+    long remaining(Long couponId);
+
+    /**
+     * ACQUIRED 와 같은 스크립트에서 이전 요청의 발급 결과 키를 지우는지
+     * false 면 호출측이 수락 후 따로 지운다 (DEL 라운드트립 1회 추가)
+     */
+    default boolean clearsIssueResult() {
+        return false;
+    }
+
+    // 이 노드가 들고 있는 재고가 있는지 (SOLD OUT near-cache 를 무시해야 하는 경우)
+    default boolean hasLocalStock(Long couponId) {
+        return false;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.coupon.service;
+
+import com.example.coupon.entity.StockGateType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 쿠폰별 StockGate 선택
+ * - CouponPolicy.stockGate 가 지정돼 있으면 그 구현, 없으면 기본값
+ * - 기본값: coupon.gate.default-type, 미지정 시 coupon.lease.enabled 에 따라 LEASE / REDIS_SCRIPT
+ * 정책 정보는 CouponMetadataCache 에서 읽는다. 발급 기간 중 게이트 종류를 바꾸면 재고 위치가 달라지므로 바꾸지 않는다는 전제.
+ */
+@Slf4j
+@Component
+public class StockGateRegistry {
+
+    private final Map<StockGateType, StockGate> gates = new EnumMap<>(StockGateType.class);
+    private final CouponMetadataCache couponMetadataCache;
+    private final StockGateType defaultType;
+
+    public StockGateRegistry(List<StockGate> stockGates,
+                             CouponMetadataCache couponMetadataCache,
+                             StockLeaseManager stockLeaseManager,
+                             @Value("${coupon.gate.default-type:}") String defaultType) {
+        stockGates.forEach(gate -> gates.put(gate.type(), gate));
+        this.couponMetadataCache = couponMetadataCache;
+        this.defaultType = defaultType.isBlank()
+                ? (stockLeaseManager.isEnabled() ? StockGateType.LEASE : StockGateType.REDIS_SCRIPT)
+                : StockGateType.valueOf(defaultType.trim());
+        log.info("Default coupon stock gate: {}", this.defaultType);
+    }
+
+    /**
+     * @throws com.example.coupon.exception.CouponNotFoundException 쿠폰이 없으면
+     */
+    public StockGate forCoupon(Long couponId) {
+        StockGateType type = typeOf(couponMetadataCache.get(couponId).stockGate());
+        StockGate gate = gates.get(type);
+        if (gate == null) {
+            throw new IllegalStateException("StockGate not registered: " + type);
+        }
+        return gate;
+    }
+
+    // 정책에 지정된 게이트 종류 (null 이면 기본값)
+    public StockGateType typeOf(StockGateType configured) {
+        return configured != null ? configured : defaultType;
+    }
+
+    // 쿠폰의 정책 id (발급 이벤트에 담아 Consumer 의 쿠폰 조회 생략)
+    public Long policyIdOf(Long couponId) {
+        return couponMetadataCache.get(couponId).policyId();
+    }
+}
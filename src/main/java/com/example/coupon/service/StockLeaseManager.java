@@ -0,0 +1,231 @@
+package com.example.coupon.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 노드 로컬 재고 임대(lease)
+ * - Redis stock 에서 블록 단위(min~max, 소진 속도에 따라 가변)로 재고를 가져와 로컬 카운터로 분배
+ * - 대부분의 요청은 Redis 호출 없이 메모리에서 처리 → 핫 키 DECR 제거
+ * - 미사용 임대분은 종료 시 / 정책 종료 시 / 유휴 타임아웃 시 Redis로 반납
+ * 임대 중인 재고는 Redis stock 에 보이지 않으므로, 한 노드가 SOLD OUT 이어도 다른 노드에는 남아 있을 수 있다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockLeaseManager {
+
+    private static final long LEASE_NOT_INITIALIZED = -3L;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisScript<Long> couponStockLeaseScript;
+    private final RedisScript<Long> couponStockReleaseScript;
+    private final CouponMetadataCache couponMetadataCache;
+    private final SoldOutCache soldOutCache;
+
+    private final Map<Long, Lease> leases = new ConcurrentHashMap<>();
+
+    @Value("${coupon.lease.enabled:false}")
+    private boolean enabled;
+
+    @Value("${coupon.lease.min-size:50}")
+    private int minLeaseSize;
+
+    @Value("${coupon.lease.max-size:500}")
+    private int maxLeaseSize;
+
+    // 임대분이 이 시간보다 빨리 소진되면 다음 임대 크기를 키우고, 느리면 줄인다
+    @Value("${coupon.lease.target-refill-interval-ms:1000}")
+    private long targetRefillIntervalMs;
+
+    @Value("${coupon.lease.idle-timeout-ms:5000}")
+    private long idleTimeoutMs;
+
+    // 정책에 게이트가 지정되지 않은 쿠폰의 기본 게이트를 LEASE 로 할지
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 재고 1개 획득
+     * @return false 면 Redis 에도 더 이상 임대할 재고가 없음 (SOLD OUT)
+     */
+    public boolean tryAcquire(Long couponId) {
+        Lease lease = leases.computeIfAbsent(couponId, this::newLease);
+        lease.touch();
+
+        while (true) {
+            if (lease.tryTake()) {
+                return true;
+            }
+            // 매진 확인된 쿠폰은 락 대기 / Redis 호출 없이 거절
+            if (soldOutCache.isSoldOut(couponId)) {
+                return false;
+            }
+            // 로컬 임대분 소진 → 한 스레드만 Redis에서 다시 임대
+            synchronized (lease) {
+                if (lease.retired) {
+                    // sweep 으로 반납/제거된 임대 → 새 임대로 다시 시도
+                    lease = leases.computeIfAbsent(couponId, this::newLease);
+                    continue;
+                }
+                if (lease.available() > 0) {
+                    continue;
+                }
+                // 락을 기다리는 동안 앞 스레드가 매진을 확인했으면 다시 조회하지 않음
+                if (soldOutCache.isSoldOut(couponId)) {
+                    return false;
+                }
+                long granted = reserve(lease, lease.nextSize(minLeaseSize, maxLeaseSize, targetRefillIntervalMs));
+                if (granted <= 0) {
+                    soldOutCache.markSoldOut(couponId);
+                    return false;
+                }
+                lease.refill(granted);
+            }
+        }
+    }
+
+    // 로컬에 남은 임대 재고 (모니터링/remaining 계산용)
+    public long localAvailable(Long couponId) {
+        Lease lease = leases.get(couponId);
+        return lease == null ? 0 : lease.available();
+    }
+
+    /**
+     * 유휴 임대분 / 종료된 정책 임대분 반납
+     * 맵에서 먼저 제거하고(제거에 성공한 스레드만) 반납 → 반납과 동시에 같은 임대로 재임대/차감되지 않음
+     */
+    @Scheduled(fixedDelayString = "${coupon.lease.sweep-interval-ms:1000}")
+    public void sweep() {
+        if (leases.isEmpty()) {
+            return;
+        }
+        long nowMs = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+
+        leases.forEach((couponId, lease) -> {
+            boolean expired = now.isAfter(lease.endAt) || nowMs - lease.lastAccessMs > idleTimeoutMs;
+            if (expired && leases.remove(couponId, lease)) {
+                giveBack(lease);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void releaseAll() {
+        leases.forEach((couponId, lease) -> {
+            if (leases.remove(couponId, lease)) {
+                giveBack(lease);
+            }
+        });
+    }
+
+    private Lease newLease(Long couponId) {
+        CouponMetadata metadata = couponMetadataCache.get(couponId);
+        return new Lease(couponId, metadata.totalQuantity(), metadata.endAt(), minLeaseSize);
+    }
+
+    private long reserve(Lease lease, int size) {
+        Long granted = redisTemplate.execute(couponStockLeaseScript, CouponRedisKeys.of(lease.couponId).hashKeys(),
+                String.valueOf(size), String.valueOf(lease.totalQuantity));
+
+        if (granted == null || granted == LEASE_NOT_INITIALIZED) {
+            throw new IllegalStateException("Coupon stock lease failed. couponId=" + lease.couponId);
+        }
+        log.debug("Coupon stock leased. couponId: {}, requested: {}, granted: {}", lease.couponId, size, granted);
+        return granted;
+    }
+
+    // 맵에서 제거된 임대만 반납 (retire 이후에는 재임대되지 않음)
+    private void giveBack(Lease lease) {
+        long unused = lease.retire();
+        if (unused > 0) {
+            // 종료 후 만료/정리된 해시면 반납하지 않음 (TTL 없는 키를 되살리지 않도록)
+            Long stock = redisTemplate.execute(couponStockReleaseScript, CouponRedisKeys.of(lease.couponId).hashKeys(),
+                    String.valueOf(unused));
+            if (stock == null || stock < 0) {
+                log.info("Coupon stock lease dropped, coupon keys already expired. couponId: {}, unused: {}",
+                        lease.couponId, unused);
+                return;
+            }
+            soldOutCache.clear(lease.couponId);
+            log.info("Coupon stock lease returned. couponId: {}, returned: {}", lease.couponId, unused);
+        }
+    }
+
+    private static final class Lease {
+        private final Long couponId;
+        private final int totalQuantity;
+        private final LocalDateTime endAt;
+        private final AtomicLong remaining = new AtomicLong();
+        private volatile long lastAccessMs = System.currentTimeMillis();
+        // synchronized(this) 안에서만 변경
+        private boolean retired;
+        private long lastRefillMs;
+        private int size;
+
+        private Lease(Long couponId, int totalQuantity, LocalDateTime endAt, int initialSize) {
+            this.couponId = couponId;
+            this.totalQuantity = totalQuantity;
+            this.endAt = endAt;
+            this.size = initialSize;
+        }
+
+        // lock-free 차감 (0 미만으로 내려가지 않음)
+        private boolean tryTake() {
+            long current;
+            do {
+                current = remaining.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!remaining.compareAndSet(current, current - 1));
+            return true;
+        }
+
+        private long available() {
+            return remaining.get();
+        }
+
+        private void touch() {
+            lastAccessMs = System.currentTimeMillis();
+        }
+
+        // synchronized(this) 안에서만 호출
+        private int nextSize(int min, int max, long targetIntervalMs) {
+            long now = System.currentTimeMillis();
+            if (lastRefillMs > 0) {
+                long elapsed = now - lastRefillMs;
+                if (elapsed < targetIntervalMs) {
+                    size = Math.min(size * 2, max);
+                } else if (elapsed > targetIntervalMs * 4) {
+                    size = Math.max(size / 2, min);
+                }
+            }
+            lastRefillMs = now;
+            return size;
+        }
+
+        private void refill(long granted) {
+            remaining.addAndGet(granted);
+        }
+
+        // 재임대를 막고 남은 임대분을 회수 (이미 tryTake 에 성공한 요청은 그대로 유효)
+        private synchronized long retire() {
+            retired = true;
+            return remaining.getAndSet(0);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+-- 쿠폰 발급 선차단 게이트 (단일 라운드트립, 원자적 실행)
+-- KEYS[1] = coupon:{id}        쿠폰 해시 (stock: 남은 재고, limit: 발급 한도 = stock 초기화 기준)
+-- KEYS[2] = coupon:{id}:users  발급 요청 유저 집합 (중복 요청 차단용)
+-- KEYS[3] = coupon:{id}:result:{userId}  (선택) 수락 시 이전 요청의 발급 결과 삭제
+-- ARGV[1] = userId  ('' 이면 중복 체크 생략)
+-- ARGV[2] = limit   ('' 이면 limit 필드 사용, 값이 있으면 limit 필드도 함께 세팅)
+-- return  >= 0 : 차감 후 남은 재고
+--           -1 : SOLD OUT
+--           -2 : 이미 요청한 유저
+--           -3 : stock/limit 모두 없음 → 호출측에서 DB 조회 후 ARGV[2] 채워서 재호출
+
+local stock = redis.call('HGET', KEYS[1], 'stock')
+if not stock then
+    local limit = ARGV[2]
+    if limit == '' then
+        limit = redis.call('HGET', KEYS[1], 'limit')
+    else
+        redis.call('HSET', KEYS[1], 'limit', limit)
+    end
+    if not limit or not tonumber(limit) then
+        return -3
+    end
+    stock = limit
+    redis.call('HSET', KEYS[1], 'stock', stock)
+end
+
+if ARGV[1] ~= '' and redis.call('SISMEMBER', KEYS[2], ARGV[1]) == 1 then
+    return -2
+end
+
+if tonumber(stock) <= 0 then
+    return -1
+end
+
+local remain = redis.call('HINCRBY', KEYS[1], 'stock', -1)
+if ARGV[1] ~= '' then
+    redis.call('SADD', KEYS[2], ARGV[1])
+end
+if KEYS[3] then
+    redis.call('DEL', KEYS[3])
+end
+return remain
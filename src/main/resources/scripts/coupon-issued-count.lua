@@ -0,0 +1,13 @@
+-- 발급/취소 후 쿠폰 해시 카운터 갱신 (라운드트립 한 번)
+-- KEYS[1] = coupon:{id}  쿠폰 해시
+-- ARGV[1] = delta (발급이면 양수, 취소면 음수)
+-- count        : 현재 발급 수 (취소 시 감소)
+-- issued_total : 누적 발급 수 (단조 증가, DB coupon_issue 이력과 정합성 비교용 - ADR-002)
+-- return 갱신 후 count
+
+local delta = tonumber(ARGV[1])
+local count = redis.call('HINCRBY', KEYS[1], 'count', delta)
+if delta > 0 then
+    redis.call('HINCRBY', KEYS[1], 'issued_total', delta)
+end
+return count
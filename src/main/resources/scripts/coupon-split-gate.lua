@@ -0,0 +1,24 @@
+-- 분할 재고 샤드 게이트 (REDIS_SPLIT, 샤드 하나 = 슬롯 하나)
+-- KEYS[1] = coupon:{id:sN}        샤드 해시 (stock: 샤드 남은 재고, limit: 샤드 몫)
+-- KEYS[2] = coupon:{id:sN}:users  이 샤드가 홈인 유저 집합 (중복 요청 차단용)
+-- ARGV[1] = userId  ('' 이면 중복 체크 생략 - 홈 샤드가 비어 형제 샤드에서 차감할 때)
+-- ARGV[2] = 샤드 몫 (stock 필드가 없을 때 초기값, 샤드 몫의 합 = 총 발급 수량)
+-- return  >= 0 : 차감 후 샤드 재고
+--           -1 : 샤드 재고 없음 (userId 가 있으면 집합에 선점된 채로 반환 → 형제 샤드까지 실패하면 호출측에서 SREM)
+--           -2 : 이미 요청한 유저
+
+local stock = redis.call('HGET', KEYS[1], 'stock')
+if not stock then
+    stock = ARGV[2]
+    redis.call('HSET', KEYS[1], 'limit', stock, 'stock', stock)
+end
+
+if ARGV[1] ~= '' and redis.call('SADD', KEYS[2], ARGV[1]) == 0 then
+    return -2
+end
+
+if tonumber(stock) <= 0 then
+    return -1
+end
+
+return redis.call('HINCRBY', KEYS[1], 'stock', -1)
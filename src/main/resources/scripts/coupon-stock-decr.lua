@@ -0,0 +1,22 @@
+-- 재고 차감 게이트 (REDIS_DECR, 중복 체크는 호출측 SADD 선점)
+-- KEYS[1] = coupon:{id}  쿠폰 해시
+-- KEYS[2] = coupon:{id}:result:{userId}  (선택) 차감 시 이전 요청의 발급 결과 삭제
+-- ARGV[1] = limit (stock 필드가 없을 때 초기값 - 키가 만료/삭제된 뒤 첫 요청도 여기서 다시 세팅)
+-- return  >= 0 : 차감 후 남은 재고
+--           -1 : SOLD OUT (차감하지 않음 → 보정 불필요)
+
+local stock = redis.call('HGET', KEYS[1], 'stock')
+if not stock then
+    stock = ARGV[1]
+    redis.call('HSET', KEYS[1], 'limit', stock, 'stock', stock)
+end
+
+if tonumber(stock) <= 0 then
+    return -1
+end
+
+local remain = redis.call('HINCRBY', KEYS[1], 'stock', -1)
+if KEYS[2] then
+    redis.call('DEL', KEYS[2])
+end
+return remain
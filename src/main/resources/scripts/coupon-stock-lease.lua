@@ -0,0 +1,30 @@
+-- 노드 로컬 재고 임대 (여러 개를 한 번에 차감)
+-- KEYS[1] = coupon:{id}  쿠폰 해시 (stock: 남은 재고, limit: 발급 한도 = stock 초기화 기준)
+-- ARGV[1] = 요청 임대 수량
+-- ARGV[2] = limit ('' 이면 limit 필드 사용, 값이 있으면 limit 필드도 함께 세팅)
+-- return  >= 0 : 실제 임대된 수량 (0 이면 SOLD OUT)
+--           -3 : stock/limit 모두 없음
+
+local stock = redis.call('HGET', KEYS[1], 'stock')
+if not stock then
+    local limit = ARGV[2]
+    if limit == '' then
+        limit = redis.call('HGET', KEYS[1], 'limit')
+    else
+        redis.call('HSET', KEYS[1], 'limit', limit)
+    end
+    if not limit or not tonumber(limit) then
+        return -3
+    end
+    stock = limit
+    redis.call('HSET', KEYS[1], 'stock', stock)
+end
+
+stock = tonumber(stock)
+if stock <= 0 then
+    return 0
+end
+
+local granted = math.min(stock, tonumber(ARGV[1]))
+redis.call('HINCRBY', KEYS[1], 'stock', -granted)
+return granted
@@ -0,0 +1,12 @@
+-- 게이트/임대 재고 반납 (쿠폰 해시 또는 분할 재고 샤드)
+-- KEYS[1] = coupon:{id} 또는 coupon:{id:sN}  (stock 필드)
+-- ARGV[1] = 반납 수량
+-- return  >= 0 : 반납 후 stock
+--           -1 : stock 필드 없음 (종료 후 만료/정리됐거나 아직 초기화 전) → 반납하지 않음
+-- 만료된 키에 HINCRBY 하면 TTL 없는 해시가 다시 생기므로 (CouponWarmupScheduler 의 만료가 풀림) 없으면 건드리지 않는다.
+-- 초기화 전이면 다음 게이트 호출이 limit 으로 stock 을 세팅하므로 반납할 필요가 없다.
+
+if redis.call('HEXISTS', KEYS[1], 'stock') == 0 then
+    return -1
+end
+return redis.call('HINCRBY', KEYS[1], 'stock', ARGV[1])
@@ -0,0 +1,16 @@
+-- 발급 시작 전 쿠폰 해시 사전 세팅 (첫 요청의 stock 초기화 경쟁 제거)
+-- KEYS[1] = coupon:{id}  쿠폰 해시 (stock / limit / count / issued_total)
+-- ARGV[1] = limit (CouponPolicy.totalQuantity)
+-- ARGV[2] = 만료 시각 (epoch ms, 발급 종료 + 유예)
+-- return  1 : 새로 세팅
+--         0 : 이미 stock 필드가 있음 (만료 시각만 갱신)
+
+local seeded = 0
+if redis.call('HEXISTS', KEYS[1], 'stock') == 0 then
+    redis.call('HSET', KEYS[1], 'limit', ARGV[1], 'stock', ARGV[1])
+    redis.call('HSETNX', KEYS[1], 'count', 0)
+    redis.call('HSETNX', KEYS[1], 'issued_total', 0)
+    seeded = 1
+end
+redis.call('PEXPIREAT', KEYS[1], ARGV[2])
+return seeded
@@ -0,0 +1,13 @@
+-- RefreshToken Rotation (검증 + 교체를 한 번에 수행)
+-- KEYS[1] = username    저장된 RefreshToken
+-- ARGV[1] = 요청에 담긴 RefreshToken
+-- ARGV[2] = 새 RefreshToken
+-- ARGV[3] = 새 RefreshToken TTL(ms)
+-- return  1 : 교체 성공
+--         0 : 저장값과 다름 (만료/로그아웃/이미 사용된 토큰)
+
+if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+    return 0
+end
+redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+return 1
@@ -0,0 +1,111 @@
+package com.example.coupon.controller;
+
+import com.example.coupon.dao.RedisDao;
+import com.example.coupon.dto.JwtToken;
+import com.example.coupon.exception.GlobalExceptionHandler;
+import com.example.coupon.jwt.JwtTokenProvider;
+import com.example.coupon.jwt.MemberPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * RefreshToken Rotation (/members/refresh)
+ * Redis 저장소는 맵으로 대신하고, 비교 후 교체(refresh-token-rotate.lua)와 같은 동작을 흉내 낸다.
+ */
+class MemberControllerTest {
+
+    private final Map<String, String> stored = new ConcurrentHashMap<>();
+    private JwtTokenProvider jwtTokenProvider;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        RedisDao redisDao = mock(RedisDao.class);
+        doAnswer(invocation -> stored.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(redisDao).setValues(anyString(), anyString(), any(Duration.class));
+        when(redisDao.compareAndSet(anyString(), anyString(), anyString(), any(Duration.class)))
+                .thenAnswer(invocation -> {
+                    String key = invocation.getArgument(0);
+                    synchronized (stored) {
+                        if (!Objects.equals(stored.get(key), invocation.getArgument(1))) {
+                            return false;
+                        }
+                        stored.put(key, invocation.getArgument(2));
+                        return true;
+                    }
+                });
+
+        jwtTokenProvider = new JwtTokenProvider("member-controller-test-secret-key-0123456789abcdef", 60_000, 1000, redisDao);
+        ReflectionTestUtils.setField(jwtTokenProvider, "ACCESS_TOKEN_EXPIRE_TIME", 60_000L);
+        ReflectionTestUtils.setField(jwtTokenProvider, "REFRESH_TOKEN_EXPIRE_TIME", 180_000L);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new MemberController(jwtTokenProvider))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void reusedRefreshTokenIsRejectedAfterRotation() throws Exception {
+        JwtToken login = login();
+
+        mockMvc.perform(refresh(login.getRefreshToken()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.refreshToken").exists());
+
+        // 이미 교체된 RefreshToken 재사용
+        mockMvc.perform(refresh(login.getRefreshToken()))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.status").value("INVALID_REFRESH_TOKEN"));
+    }
+
+    @Test
+    void accessTokenIsRejectedAsRefreshToken() throws Exception {
+        JwtToken login = login();
+
+        mockMvc.perform(refresh(login.getAccessToken()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void refreshTokenIsRejectedAsAccessToken() {
+        JwtToken login = login();
+
+        assertThat(jwtTokenProvider.authenticate(login.getAccessToken())).isNotNull();
+        assertThat(jwtTokenProvider.authenticate(login.getRefreshToken())).isNull();
+    }
+
+    private JwtToken login() {
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        MemberPrincipal principal = new MemberPrincipal(1L, "member-1", "", authorities);
+        return jwtTokenProvider.generateToken(new UsernamePasswordAuthenticationToken(principal, "", authorities));
+    }
+
+    private static RequestBuilder refresh(String refreshToken) {
+        return post("/members/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"" + refreshToken + "\"}");
+    }
+}
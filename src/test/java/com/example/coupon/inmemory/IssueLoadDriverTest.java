@@ -0,0 +1,220 @@
+package com.example.coupon.inmemory;
+
+import com.example.coupon.entity.Coupon;
+import com.example.coupon.entity.CouponPolicy;
+import com.example.coupon.entity.StockGateType;
+import com.example.coupon.entity.User;
+import com.example.coupon.exception.CouponAlreadyIssuedException;
+import com.example.coupon.exception.CouponIssueThrottledException;
+import com.example.coupon.exception.CouponNotIssuableException;
+import com.example.coupon.exception.CouponSoldOutException;
+import com.example.coupon.repository.CouponIssueRepository;
+import com.example.coupon.repository.CouponPolicyRepository;
+import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.repository.UserRepository;
+import com.example.coupon.service.CouponService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * inmemory 프로필 부하 드라이버 (Redis / Kafka / MySQL 없이 단일 JVM)
+ * - 쿠폰 1개(재고 stock) + 유저 users 명 생성 후 threads 개 스레드로 CouponService.issueCoupon 직접 호출
+ * - 유저당 requests-per-user 번 요청 (2 이상이면 중복 요청 포함)
+ * - 큐가 빌 때까지 기다린 뒤 처리량, 게이트/종단 지연 분위수, 초과 발급 여부를 리포트
+ * COUPON_LOAD_TEST=true ./gradlew test --tests '*IssueLoadDriverTest' 로 실행
+ * (설정은 환경 변수로 변경, 예: COUPON_LOAD_USERS=50000 COUPON_LOAD_STOCK_GATE=REDIS_SPLIT)
+ * 초과 발급, 게이트/DB 불일치, 큐 미처리가 있으면 실패
+ */
+@SpringBootTest
+@ActiveProfiles("inmemory")
+@EnabledIfEnvironmentVariable(named = "COUPON_LOAD_TEST", matches = "true")
+class IssueLoadDriverTest {
+
+    private static final Logger log = LoggerFactory.getLogger(IssueLoadDriverTest.class);
+    private static final int USER_BATCH_SIZE = 1000;
+
+    @Autowired
+    private CouponService couponService;
+    @Autowired
+    private CouponPolicyRepository couponPolicyRepository;
+    @Autowired
+    private CouponRepository couponRepository;
+    @Autowired
+    private CouponIssueRepository couponIssueRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private InMemoryIssueQueue inMemoryIssueQueue;
+
+    @Value("${coupon.load.users:20000}")
+    private int users;
+
+    @Value("${coupon.load.requests-per-user:1}")
+    private int requestsPerUser;
+
+    @Value("${coupon.load.threads:32}")
+    private int threads;
+
+    @Value("${coupon.load.stock:5000}")
+    private int stock;
+
+    @Value("${coupon.load.stripe-count:1}")
+    private int stripeCount;
+
+    // 비어 있으면 coupon.gate.default-type
+    @Value("${coupon.load.stock-gate:}")
+    private String stockGate;
+
+    @Value("${coupon.load.drain-timeout-seconds:120}")
+    private long drainTimeoutSeconds;
+
+    // 유저 index → users.id (AccessToken uid 클레임과 같은 값)
+    private long[] memberIds;
+
+    @Test
+    void issueUnderLoad() throws Exception {
+        Long couponId = prepare();
+
+        int total = users * requestsPerUser;
+        long[] gateLatencies = new long[total];
+        AtomicInteger cursor = new AtomicInteger();
+        LongAdder accepted = new LongAdder();
+        LongAdder soldOut = new LongAdder();
+        LongAdder duplicate = new LongAdder();
+        LongAdder throttled = new LongAdder();
+        LongAdder notIssuable = new LongAdder();
+        LongAdder error = new LongAdder();
+
+        log.info("Load run started. users: {}, requestsPerUser: {}, threads: {}, stock: {}, stockGate: {}",
+                users, requestsPerUser, threads, stock, stockGate.isBlank() ? "default" : stockGate);
+        inMemoryIssueQueue.resetLatencies();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long startedAt = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                int i;
+                while ((i = cursor.getAndIncrement()) < total) {
+                    int user = i % users;
+                    long begin = System.nanoTime();
+                    try {
+                        couponService.issueCoupon(memberIds[user], userId(user), couponId);
+                        accepted.increment();
+                    } catch (CouponSoldOutException e) {
+                        soldOut.increment();
+                    } catch (CouponAlreadyIssuedException e) {
+                        duplicate.increment();
+                    } catch (CouponIssueThrottledException e) {
+                        throttled.increment();
+                    } catch (CouponNotIssuableException e) {
+                        notIssuable.increment();
+                    } catch (RuntimeException e) {
+                        error.increment();
+                    }
+                    gateLatencies[i] = System.nanoTime() - begin;
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+        long gateNanos = System.nanoTime() - startedAt;
+
+        boolean drained = inMemoryIssueQueue.awaitDrained(drainTimeoutSeconds, TimeUnit.SECONDS);
+        long totalNanos = System.nanoTime() - startedAt;
+
+        long issued = couponIssueRepository.countByCouponId(couponId);
+        boolean overIssued = issued > stock;
+        boolean mismatch = issued != accepted.sum() - inMemoryIssueQueue.failed();
+
+        log.info("===== In-memory issue load report =====");
+        log.info("requests: {}, accepted: {}, soldOut: {}, duplicate: {}, throttled: {}, notIssuable: {}, error: {}",
+                total, accepted.sum(), soldOut.sum(), duplicate.sum(), throttled.sum(), notIssuable.sum(), error.sum());
+        log.info("gate throughput: {} req/s ({} ms)", perSecond(total, gateNanos), TimeUnit.NANOSECONDS.toMillis(gateNanos));
+        log.info("end-to-end throughput: {} issued/s ({} ms, drained: {})",
+                perSecond(issued, totalNanos), TimeUnit.NANOSECONDS.toMillis(totalNanos), drained);
+        log.info("gate latency (us): {}", percentiles(gateLatencies));
+        log.info("enqueue->issued latency (us): {}", percentiles(inMemoryIssueQueue.endToEndLatencies()));
+        log.info("issued rows: {}, stock: {}, consumer failures: {}, over-issued: {}, gate/db mismatch: {}",
+                issued, stock, inMemoryIssueQueue.failed(), overIssued, mismatch);
+
+        assertThat(drained).isTrue();
+        assertThat(overIssued).isFalse();
+        assertThat(mismatch).isFalse();
+    }
+
+    // 정책/쿠폰/유저 생성
+    private Long prepare() {
+        LocalDateTime now = LocalDateTime.now();
+        CouponPolicy policy = new CouponPolicy(stock, now.minusHours(1), now.plusHours(1), true, stripeCount);
+        if (!stockGate.isBlank()) {
+            policy.changeStockGate(StockGateType.valueOf(stockGate.trim()));
+        }
+        couponPolicyRepository.save(policy);
+        Coupon coupon = couponRepository.save(new Coupon("load-test", 1000, policy));
+
+        memberIds = new long[users];
+        List<User> batch = new ArrayList<>(USER_BATCH_SIZE);
+        for (int i = 0; i < users; i++) {
+            User user = new User();
+            user.setUserId(userId(i));
+            user.setUsername("load user " + i);
+            user.setPassword("{noop}load");
+            user.setEmail(userId(i) + "@load.test");
+            batch.add(user);
+            if (batch.size() == USER_BATCH_SIZE) {
+                save(batch, i + 1 - batch.size());
+            }
+        }
+        save(batch, users - batch.size());
+        return coupon.getId();
+    }
+
+    private void save(List<User> batch, int firstIndex) {
+        List<User> saved = userRepository.saveAll(batch);
+        for (int j = 0; j < saved.size(); j++) {
+            memberIds[firstIndex + j] = saved.get(j).getId();
+        }
+        batch.clear();
+    }
+
+    private static String userId(int index) {
+        return "load-user-" + index;
+    }
+
+    private static long perSecond(long count, long nanos) {
+        return nanos == 0 ? 0 : count * TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    private static String percentiles(long[] nanos) {
+        if (nanos.length == 0) {
+            return "n/a";
+        }
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return String.format("p50=%d p90=%d p99=%d p99.9=%d max=%d",
+                micros(sorted, 0.50), micros(sorted, 0.90), micros(sorted, 0.99), micros(sorted, 0.999),
+                sorted[sorted.length - 1] / 1000);
+    }
+
+    private static long micros(long[] sorted, double quantile) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1000;
+    }
+}
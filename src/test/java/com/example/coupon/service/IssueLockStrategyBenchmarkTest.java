@@ -0,0 +1,143 @@
+package com.example.coupon.service;
+
+import com.example.coupon.dto.CouponIssueEvent;
+import com.example.coupon.entity.Coupon;
+import com.example.coupon.entity.CouponPolicy;
+import com.example.coupon.entity.User;
+import com.example.coupon.repository.CouponPolicyRepository;
+import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 발급 전략별 락 점유 시간 / 처리량 비교
+ * docker-compose 인프라(MySQL, Redis, Kafka)가 떠 있는 상태에서
+ * COUPON_BENCHMARK=true ./gradlew test --tests '*IssueLockStrategyBenchmarkTest' 로 실행
+ * 발급은 워커 스레드에서 각자 커밋되므로 테스트 트랜잭션 롤백 대신 만든 데이터(DB row, Redis 키)를 @AfterEach 에서 삭제
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "COUPON_BENCHMARK", matches = "true")
+class IssueLockStrategyBenchmarkTest {
+
+    private static final int CONSUMERS = 10; // ADR-003 Consumer 수
+    private static final int EVENTS = 2_000;
+    private static final Logger log = LoggerFactory.getLogger(IssueLockStrategyBenchmarkTest.class);
+
+    @Autowired
+    private CouponIssueService couponIssueService;
+    @Autowired
+    private IssueLockStats issueLockStats;
+    @Autowired
+    private CouponPolicyRepository couponPolicyRepository;
+    @Autowired
+    private CouponRepository couponRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    private final List<Long> policyIds = new ArrayList<>();
+    private final List<Long> couponIds = new ArrayList<>();
+    private final List<User> createdUsers = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        for (Long couponId : couponIds) {
+            jdbcTemplate.update("DELETE FROM coupon_issue WHERE coupon_id = ?", couponId);
+            CouponRedisKeys keys = CouponRedisKeys.of(couponId);
+            List<String> redisKeys = new ArrayList<>(keys.hashKeys());
+            redisKeys.add(keys.users());
+            createdUsers.forEach(user -> redisKeys.add(keys.result(user.getUsername())));
+            redisTemplate.delete(redisKeys);
+        }
+        couponRepository.deleteAllById(couponIds);
+        userRepository.deleteAll(createdUsers);
+        for (Long policyId : policyIds) {
+            jdbcTemplate.update("DELETE FROM coupon_policy_slot WHERE policy_id = ?", policyId);
+        }
+        couponPolicyRepository.deleteAllById(policyIds);
+    }
+
+    // row 락 전략: Consumer 수만큼 동시에 같은 쿠폰 발급
+    @Test
+    void compareLockHoldTimeAndThroughput() throws Exception {
+        run(IssueLockStrategy.PESSIMISTIC, CONSUMERS, -1);
+        run(IssueLockStrategy.CONDITIONAL_UPDATE, CONSUMERS, -1);
+    }
+
+    // 파티션 소유 전략: 쿠폰당 단일 writer 가 전제이므로 소유 파티션 0 을 한 스레드로 처리
+    @Test
+    void partitionOwnerSingleWriter() throws Exception {
+        run(IssueLockStrategy.PARTITION_OWNER, 1, 0);
+    }
+
+    private void run(IssueLockStrategy strategy, int threads, int partition) throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        CouponPolicy policy = couponPolicyRepository.save(
+                new CouponPolicy(EVENTS, now.minusMinutes(1), now.plusHours(1), true));
+        policyIds.add(policy.getId());
+        Coupon coupon = couponRepository.save(new Coupon("bench-" + strategy, 1000, policy));
+        couponIds.add(coupon.getId());
+
+        String prefix = "bench-" + strategy + "-" + System.nanoTime() + "-";
+        List<User> users = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            User user = new User();
+            user.setUserId(prefix + i);
+            user.setUsername(prefix + i);
+            user.setPassword("-");
+            user.setEmail(prefix + i + "@bench.local");
+            users.add(user);
+        }
+        createdUsers.addAll(userRepository.saveAll(users));
+
+        issueLockStats.reset();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long startedAt = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>(EVENTS);
+        for (User user : users) {
+            CouponIssueEvent event = new CouponIssueEvent(coupon.getId(), policy.getId(), user.getId(),
+                    user.getUserId(), System.currentTimeMillis());
+            futures.add(executor.submit(() -> couponIssueService.issue(event, strategy, partition)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        IssueLockStats.Snapshot snapshot = issueLockStats.snapshot(strategy);
+        log.info("[{}] threads={}, events={}, throughput={}/s, lockHold avg={}ms max={}ms",
+                strategy, threads, EVENTS, String.format("%.1f", EVENTS / (elapsedNanos / 1e9)),
+                String.format("%.3f", snapshot.avgHoldNanos() / 1e6),
+                String.format("%.3f", snapshot.maxHoldNanos() / 1e6));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM coupon_issue WHERE coupon_id = ?",
+                Long.class, coupon.getId())).isEqualTo(EVENTS);
+        // PARTITION_OWNER 는 체크포인트(checkpoint-interval 건마다)에서만 정책 수량을 갱신
+        if (strategy != IssueLockStrategy.PARTITION_OWNER) {
+            assertThat(couponPolicyRepository.findById(policy.getId()).orElseThrow().getIssuedQuantity())
+                    .isEqualTo(EVENTS);
+        }
+        assertThat(snapshot.committed()).isEqualTo(EVENTS);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.coupon.service;
+
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * RedisTrackingCache 의 공유 연결 fallback / invalidate 반영
+ * invalidate 테스트는 실제 Redis(6 이상)가 필요하므로 docker-compose 의 Redis 가 떠 있는 상태에서
+ * COUPON_REDIS_TEST=true ./gradlew test --tests '*RedisTrackingCacheTest' 로 실행
+ */
+class RedisTrackingCacheTest {
+
+    private static final String KEY = "coupon:test:tracking:" + System.nanoTime();
+
+    private ClientResources clientResources;
+    private RedisTrackingCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clientResources = DefaultClientResources.create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (cache != null) {
+            cache.destroy();
+        }
+        clientResources.shutdown();
+    }
+
+    @Test
+    void disabledReadsThroughSharedTemplate() {
+        StringRedisTemplate redisTemplate = templateReturning("v1");
+        cache = new RedisTrackingCache(redisTemplate, connectionFactory(6379), clientResources, false, 10, 5000);
+
+        assertThat(cache.get(KEY)).isEqualTo("v1");
+        assertThat(cache.get(KEY)).isEqualTo("v1");
+        assertThat(cache.isTracking()).isFalse();
+        verify(redisTemplate.opsForValue(), times(2)).get(KEY);
+    }
+
+    // 기동 시 Redis 에 붙지 못해도 빈 생성은 성공하고, 조회는 공유 연결로 처리 (다음 시도는 retry-ms 이후)
+    @Test
+    void fallsBackToSharedTemplateWhileUnreachable() {
+        StringRedisTemplate redisTemplate = templateReturning("v1");
+        cache = new RedisTrackingCache(redisTemplate, connectionFactory(1), clientResources, true, 10, 60_000);
+
+        assertThat(cache.isTracking()).isFalse();
+        assertThat(cache.get(KEY)).isEqualTo("v1");
+        assertThat(cache.get(KEY)).isEqualTo("v1");
+        assertThat(cache.isTracking()).isFalse();
+        verify(redisTemplate.opsForValue(), times(2)).get(KEY);
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "COUPON_REDIS_TEST", matches = "true")
+    void changedKeyIsInvalidated() throws Exception {
+        LettuceConnectionFactory connectionFactory = connectionFactory(6379);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        try {
+            redisTemplate.opsForValue().set(KEY, "v1");
+            cache = new RedisTrackingCache(redisTemplate, connectionFactory, clientResources, true, 10, 5000);
+
+            assertThat(cache.get(KEY)).isEqualTo("v1");
+            assertThat(cache.isTracking()).isTrue();
+
+            // 다른 연결에서 값을 바꾸면 서버 push 로 로컬 값이 제거되어 다음 조회에 새 값
+            redisTemplate.opsForValue().set(KEY, "v2");
+            String value = cache.get(KEY);
+            for (int i = 0; i < 100 && !"v2".equals(value); i++) {
+                Thread.sleep(10);
+                value = cache.get(KEY);
+            }
+            assertThat(value).isEqualTo("v2");
+        } finally {
+            redisTemplate.delete(KEY);
+            connectionFactory.destroy();
+        }
+    }
+
+    private static LettuceConnectionFactory connectionFactory(int port) {
+        return new LettuceConnectionFactory(new RedisStandaloneConfiguration(
+                System.getenv().getOrDefault("REDIS_HOST", "localhost"), port));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StringRedisTemplate templateReturning(String value) {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(KEY)).thenReturn(value);
+        return redisTemplate;
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.coupon.service;
+
+import com.example.coupon.entity.StockGateType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 게이트 스크립트 동작 (초과 선점 / 중복 요청 / 반납)
+ * 실제 Redis 에서 Lua 스크립트를 실행하므로 docker-compose 의 Redis 가 떠 있는 상태에서
+ * COUPON_REDIS_TEST=true ./gradlew test --tests '*StockGateScriptTest' 로 실행
+ */
+@EnabledIfEnvironmentVariable(named = "COUPON_REDIS_TEST", matches = "true")
+class StockGateScriptTest {
+
+    private static final int STOCK = 50;
+    private static final int USERS = 200;
+    private static final int SHARDS = 4;
+    private static final RedisScript<Long> RELEASE_SCRIPT = script("coupon-stock-release.lua");
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private final Long couponId = -System.nanoTime();
+    private CouponMetadataCache couponMetadataCache;
+    private IssuedUserFilter issuedUserFilter;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(
+                System.getenv().getOrDefault("REDIS_HOST", "localhost"), 6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        couponMetadataCache = mock(CouponMetadataCache.class);
+        when(couponMetadataCache.get(couponId)).thenReturn(new CouponMetadata(couponId, 1L, STOCK,
+                now.minusMinutes(1), now.plusHours(1), true, false, StockGateType.REDIS_SCRIPT));
+
+        issuedUserFilter = new IssuedUserFilter(redisTemplate);
+        ReflectionTestUtils.setField(issuedUserFilter, "enabled", true);
+        ReflectionTestUtils.setField(issuedUserFilter, "localCapacity", 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        CouponRedisKeys keys = CouponRedisKeys.of(couponId);
+        List<String> all = new ArrayList<>(List.of(keys.hash(), keys.users()));
+        for (int i = 0; i < SHARDS; i++) {
+            all.addAll(keys.shardKeys(i, SHARDS));
+        }
+        redisTemplate.delete(all);
+    }
+
+    @Test
+    void scriptGate() throws Exception {
+        StockGate gate = new RedisScriptStockGate(redisTemplate, script("coupon-issue-gate.lua"), RELEASE_SCRIPT,
+                couponMetadataCache, issuedUserFilter);
+        assertGateBehavior(gate);
+    }
+
+    @Test
+    void decrGate() throws Exception {
+        StockGate gate = new RedisDecrStockGate(redisTemplate, script("coupon-stock-decr.lua"), RELEASE_SCRIPT,
+                couponMetadataCache, issuedUserFilter);
+        assertGateBehavior(gate);
+    }
+
+    @Test
+    void splitGate() throws Exception {
+        StockGate gate = new SplitStockGate(redisTemplate, script("coupon-split-gate.lua"), RELEASE_SCRIPT,
+                couponMetadataCache, issuedUserFilter, SHARDS, 1000);
+        assertGateBehavior(gate);
+    }
+
+    // 키가 만료/삭제된 뒤에도 다음 요청이 limit 으로 다시 세팅 (SOLD OUT 으로 굳지 않음)
+    @Test
+    void decrGateReseedsAfterKeyExpired() {
+        StockGate gate = new RedisDecrStockGate(redisTemplate, script("coupon-stock-decr.lua"), RELEASE_SCRIPT,
+                couponMetadataCache, issuedUserFilter);
+        assertThat(gate.tryAcquire(couponId, "user-1")).isEqualTo(StockGate.Result.ACQUIRED);
+
+        redisTemplate.delete(CouponRedisKeys.of(couponId).hash());
+
+        assertThat(gate.tryAcquire(couponId, "user-2")).isEqualTo(StockGate.Result.ACQUIRED);
+        assertThat(gate.remaining(couponId)).isEqualTo(STOCK - 1);
+    }
+
+    // 수락한 스크립트가 이전 요청의 발급 결과 키를 지움 (호출측 DEL 생략), 매진으로 거절되면 그대로 둠
+    @Test
+    void acceptedRequestClearsPreviousResult() {
+        StockGate scriptGate = new RedisScriptStockGate(redisTemplate, script("coupon-issue-gate.lua"), RELEASE_SCRIPT,
+                couponMetadataCache, issuedUserFilter);
+        StockGate decrGate = new RedisDecrStockGate(redisTemplate, script("coupon-stock-decr.lua"), RELEASE_SCRIPT,
+                couponMetadataCache, issuedUserFilter);
+        CouponRedisKeys keys = CouponRedisKeys.of(couponId);
+
+        for (StockGate gate : List.of(scriptGate, decrGate)) {
+            assertThat(gate.clearsIssueResult()).isTrue();
+            String userId = "retry-" + gate.type();
+            redisTemplate.opsForValue().set(keys.result(userId), "F");
+            assertThat(gate.tryAcquire(couponId, userId)).isEqualTo(StockGate.Result.ACQUIRED);
+            assertThat(redisTemplate.hasKey(keys.result(userId))).isFalse();
+        }
+
+        redisTemplate.opsForHash().put(keys.hash(), CouponRedisKeys.STOCK, "0");
+        redisTemplate.opsForValue().set(keys.result("sold-out"), "F");
+        assertThat(scriptGate.tryAcquire(couponId, "sold-out")).isEqualTo(StockGate.Result.SOLD_OUT);
+        assertThat(redisTemplate.opsForValue().get(keys.result("sold-out"))).isEqualTo("F");
+        redisTemplate.delete(keys.result("sold-out"));
+    }
+
+    private void assertGateBehavior(StockGate gate) throws Exception {
+        // 1. 통과한 유저의 재요청은 중복
+        String first = "first-user";
+        assertThat(gate.tryAcquire(couponId, first)).isEqualTo(StockGate.Result.ACQUIRED);
+        assertThat(gate.tryAcquire(couponId, first)).isEqualTo(StockGate.Result.DUPLICATE);
+
+        // 2. 동시 요청: 남은 재고 수만큼만 통과, 재고는 0 아래로 내려가지 않음
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        List<Future<StockGate.Result>> futures = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            String userId = "user-" + i;
+            futures.add(executor.submit(() -> gate.tryAcquire(couponId, userId)));
+        }
+        int acquired = 0;
+        String loser = null;
+        for (int i = 0; i < USERS; i++) {
+            if (futures.get(i).get() == StockGate.Result.ACQUIRED) {
+                acquired++;
+            } else {
+                loser = "user-" + i;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(acquired).isEqualTo(STOCK - 1);
+        assertThat(gate.remaining(couponId)).isZero();
+        assertThat(gate.tryAcquire(couponId, loser)).isEqualTo(StockGate.Result.SOLD_OUT);
+
+        // 3. 반납: 재고 1 복구 + 반납한 유저는 다시 요청 가능, 재고가 없어 실패한 유저는 중복으로 막히지 않음
+        gate.release(couponId, first);
+        assertThat(gate.remaining(couponId)).isEqualTo(1);
+        assertThat(gate.tryAcquire(couponId, loser)).isEqualTo(StockGate.Result.ACQUIRED);
+        assertThat(gate.tryAcquire(couponId, first)).isEqualTo(StockGate.Result.SOLD_OUT);
+        assertThat(gate.remaining(couponId)).isZero();
+    }
+
+    private static RedisScript<Long> script(String name) {
+        return RedisScript.of(new ClassPathResource("scripts/" + name), Long.class);
+    }
+}